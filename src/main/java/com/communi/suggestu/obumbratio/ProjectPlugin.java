@@ -5,7 +5,18 @@ import com.communi.suggestu.obumbratio.model.ConfigurationSetup;
 import com.communi.suggestu.obumbratio.model.Implementation;
 import com.communi.suggestu.obumbratio.model.Platform;
 import com.communi.suggestu.obumbratio.model.RunConfiguration;
+import com.communi.suggestu.obumbratio.recorder.BenchmarkRecorder;
+import com.communi.suggestu.obumbratio.services.BuildTimelineService;
+import com.communi.suggestu.obumbratio.tasks.BenchmarkShaderRun;
+import com.communi.suggestu.obumbratio.tasks.ConfigureIris;
 import com.communi.suggestu.obumbratio.tasks.InstallMods;
+import com.communi.suggestu.obumbratio.tasks.InstallShaderpacks;
+import com.communi.suggestu.obumbratio.tasks.LaunchClients;
+import com.communi.suggestu.obumbratio.tasks.LinkSharedContent;
+import com.communi.suggestu.obumbratio.tasks.PrepareClassDataArchive;
+import com.communi.suggestu.obumbratio.tasks.SummarizeProfile;
+import com.communi.suggestu.obumbratio.tasks.WriteProfilingSettings;
+import com.communi.suggestu.obumbratio.utils.RecorderUtils;
 import com.communi.suggestu.obumbratio.utils.RepositoryUtils;
 import com.communi.suggestu.obumbratio.utils.RunUtils;
 import com.communi.suggestu.obumbratio.utils.SourceSetUtils;
@@ -14,27 +25,45 @@ import net.fabricmc.loom.configuration.ide.RunConfigSettings;
 import net.neoforged.gradle.dsl.common.runs.run.Run;
 import net.neoforged.gradle.dsl.common.runs.run.RunManager;
 import org.apache.commons.lang3.StringUtils;
+import org.gradle.api.GradleException;
 import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.JavaVersion;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.Directory;
+import org.gradle.api.plugins.JavaPluginExtension;
 import org.gradle.api.problems.ProblemGroup;
 import org.gradle.api.problems.ProblemId;
 import org.gradle.api.problems.Problems;
 import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.JavaExec;
+import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.TaskProvider;
+import org.gradle.build.event.BuildEventsListenerRegistry;
+import org.gradle.jvm.toolchain.JavaLanguageVersion;
 import org.jetbrains.annotations.NotNull;
 
 import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.List;
 import java.util.Set;
 import java.util.function.BiConsumer;
 
 @SuppressWarnings("UnstableApiUsage")
 public abstract class ProjectPlugin implements Plugin<Project> {
 
-    private static ProblemGroup PROBLEM_GROUP = ProblemGroup.create("obumbratio", "Obumbratio");
+    public static final String SHADERPACKS_CONFIGURATION_NAME = "shaderpacks";
+
+    private static final ProblemGroup PROBLEM_GROUP = ProblemGroup.create("obumbratio", "Obumbratio");
 
     private static ProblemId createProblemId(String problemId, String message) {
         return ProblemId.create(problemId, message, PROBLEM_GROUP);
@@ -45,6 +74,11 @@ public abstract class ProjectPlugin implements Plugin<Project> {
 
         RepositoryUtils.configureRepositories(project);
 
+        final Configuration shaderpacks = project.getConfigurations().create(SHADERPACKS_CONFIGURATION_NAME, config -> {
+            config.setCanBeResolved(true);
+            config.setCanBeConsumed(false);
+        });
+
         final ShadersExtension extension = project.getExtensions().create("shaders", ShadersExtension.class, project, (BiConsumer<ShadersExtension, Implementation>) (shaders, implementation) -> {
             SourceSetUtils.getOrCreateShaderSourceSetIn(project, shaders.getPlatform(), implementation);
             getOrCreateRunConfigurations(project, shaders, implementation);
@@ -55,6 +89,7 @@ public abstract class ProjectPlugin implements Plugin<Project> {
 
         project.afterEvaluate(p -> {
             if (!extension.getIsEnabled()) {
+                warnAboutProjectProperty(project, "compat.shaders.enabled");
                 //Short circuit if the extension is not enabled
                 return;
             }
@@ -119,14 +154,329 @@ public abstract class ProjectPlugin implements Plugin<Project> {
                         processResources.configure(task -> {
                             task.dependsOn(installMods);
                         });
+
+                        //Meant to be used with --continuous, which keeps the mods of a running game in sync
+                        p.getTasks().register("syncMods%s".formatted(StringUtils.capitalize(run.name())), task -> {
+                            task.setGroup("obumbratio");
+                            task.setDescription("Keeps the mods of the run in sync, run it with --continuous while the game is running");
+                            task.dependsOn(installMods);
+                            if (extension.getRuns().getSyncSourceSetOutput().get()) {
+                                task.dependsOn(SourceSetUtils.getOrCreateShaderSourceSetIn(p, platform, implementation).getClassesTaskName());
+                            }
+                        });
                     });
                 }
+
+                if (extension.getRuns().getClassDataSharing().get()) {
+                    configureClassDataSharing(p, platform, implementation, configurationSetup, runs);
+                }
+            });
+
+            if (extension.getRuns().getShareContent().get()) {
+                configureSharedContent(p, extension);
+            }
+
+            configureShaderpacks(p, extension, shaderpacks);
+            configureClients(p, extension);
+
+            if (extension.getBenchmark().getWorld().isPresent()) {
+                configureBenchmarks(p, extension);
+            }
+
+            if (extension.getTimeline().get()) {
+                configureTimeline(p, extension);
+            }
+
+            if (extension.getProfiling().getEnabled().get()) {
+                configureProfiling(p, extension);
+            }
+        });
+    }
+
+    private void configureProfiling(Project project, ShadersExtension extension) {
+        final ShadersExtension.Profiling profiling = extension.getProfiling();
+        final Platform platform = extension.getPlatform();
+        final Provider<Directory> profilingDirectory = project.getLayout().getBuildDirectory().dir("obumbratio/profiling");
+        final File settingsFile = profilingDirectory.get().file("obumbratio.jfc").getAsFile();
+
+        final TaskProvider<WriteProfilingSettings> writeProfilingSettings = project.getTasks().register("writeProfilingSettings", WriteProfilingSettings.class, task -> {
+            task.getSettingsFile().set(settingsFile);
+        });
+        project.getTasks().named("processResources").configure(task -> {
+            task.dependsOn(writeProfilingSettings);
+        });
+
+        extension.getImplementations().forEach(implementation -> {
+            final SourceSet sourceSet = SourceSetUtils.getOrCreateShaderSourceSetIn(project, platform, implementation);
+
+            getOrCreateRunConfigurations(project, extension, implementation).forEach(shaderRun -> {
+                final File recording = profilingDirectory.get().file("%s/recording.jfr".formatted(shaderRun.name())).getAsFile();
+
+                final RunConfiguration profileRun = RunUtils.getOrCreateProfileRunFor(project, platform, implementation, sourceSet, shaderRun, List.of(
+                        "-XX:StartFlightRecording=duration=%ds,filename=%s,settings=%s,dumponexit=true".formatted(
+                                profiling.getDuration().get().toSeconds(),
+                                recording.getAbsolutePath(),
+                                settingsFile.getAbsolutePath()
+                        )
+                ));
+
+                final String taskName = "summarize%s".formatted(StringUtils.capitalize(profileRun.name()));
+                final TaskProvider<SummarizeProfile> summarizeProfile = project.getTasks().register(taskName, SummarizeProfile.class, task -> {
+                    task.getRunName().set(profileRun.name());
+                    task.getRecording().from(project.fileTree(recording.getParentFile(), tree -> tree.include(recording.getName())));
+                    task.getSourceSetClasses().from(sourceSet.getOutput().getClassesDirs());
+                    task.getPackages().set(profiling.getPackages());
+                    task.getLimit().set(profiling.getLimit());
+                    task.getSummaryFile().set(new File(recording.getParentFile(), "summary.md"));
+                });
+
+                //The run tasks are created by the platform plugin at a later point, so they are picked up when they are configured
+                final String runTaskName = RunUtils.getRunTaskName(profileRun);
+                project.getTasks().configureEach(task -> {
+                    if (task.getName().equals(runTaskName)) {
+                        task.finalizedBy(summarizeProfile);
+                    }
+                });
+            });
+        });
+    }
+
+    private void configureTimeline(Project project, ShadersExtension extension) {
+        final Provider<BuildTimelineService> timeline = project.getGradle().getSharedServices().registerIfAbsent(
+                BuildTimelineService.NAME,
+                BuildTimelineService.class,
+                spec -> spec.getParameters().getOutputFile().set(
+                        project.getIsolated().getRootProject().getProjectDirectory().file("build/obumbratio/timeline.json")
+                )
+        );
+
+        getBuildEventsListenerRegistry().onTaskCompletion(timeline);
+
+        project.getTasks().withType(InstallMods.class).configureEach(task -> {
+            task.getTimeline().set(timeline);
+            task.usesService(timeline);
+        });
+        project.getTasks().withType(InstallShaderpacks.class).configureEach(task -> {
+            task.getTimeline().set(timeline);
+            task.usesService(timeline);
+        });
+
+        extension.getImplementations().forEach(implementation -> getOrCreateRunConfigurations(project, extension, implementation)
+                .forEach(run -> configureWindowMarker(project, run, timeline)));
+    }
+
+    //The run task only ends when the game exits, so the game marks its first frame itself through the recorder agent
+    private void configureWindowMarker(Project project, RunConfiguration run, Provider<BuildTimelineService> timeline) {
+        final Provider<Directory> timelineDirectory = project.getLayout().getBuildDirectory().dir("obumbratio/timeline/%s".formatted(run.name()));
+        final File agentJar = timelineDirectory.get().file("recorder.jar").getAsFile();
+        final File windowMarker = timelineDirectory.get().file("window.txt").getAsFile();
+
+        //The run tasks are created by the platform plugin at a later point, so they are picked up when they are configured.
+        //The agent is added to the task only, the runs themselves also generate the IDE runs, which do not write the agent.
+        final String runTaskName = RunUtils.getRunTaskName(run);
+        project.getTasks().withType(JavaExec.class).configureEach(task -> {
+            if (!task.getName().equals(runTaskName)) {
+                return;
+            }
+
+            task.usesService(timeline);
+            task.getJvmArgumentProviders().add(() -> List.of(
+                    "-javaagent:%s".formatted(agentJar.getAbsolutePath()),
+                    "-D%s=%s".formatted(BenchmarkRecorder.WINDOW_MARKER, windowMarker.getAbsolutePath())
+            ));
+            task.doFirst(t -> {
+                try {
+                    Files.deleteIfExists(windowMarker.toPath());
+                    RecorderUtils.writeAgent(agentJar.toPath());
+                } catch (IOException e) {
+                    throw new GradleException("Failed to prepare the window marker of: %s".formatted(t.getPath()), e);
+                }
+
+                timeline.get().recordLaunch(t.getPath(), System.currentTimeMillis(), windowMarker.toPath());
+            });
+        });
+    }
+
+    private void configureClients(Project project, ShadersExtension extension) {
+        final ShadersExtension.Clients clients = extension.getClients();
+
+        project.getTasks().register("launchClients", LaunchClients.class, task -> {
+            //The base run launches next to the shader runs, as the baseline without any shaders
+            final List<RunConfiguration> runs = new ArrayList<>();
+            runs.add(RunUtils.getBaseRunFor(project, extension.getPlatform()));
+            extension.getImplementations().forEach(implementation -> runs.addAll(getOrCreateRunConfigurations(project, extension, implementation)));
+
+            runs.forEach(run -> {
+                task.launch(launch -> RunUtils.configureLaunchFrom(project, extension.getPlatform(), run, launch));
+                task.dependsOn(project.getTasks().named(RunUtils.getRunTaskName(run)).map(Task::getTaskDependencies));
+            });
+
+            task.getMaxParallelClients().set(clients.getMaxParallelClients());
+            task.getMaxHeapSize().set(clients.getMaxHeapSize());
+            task.getDuration().set(clients.getDuration());
+            task.getSoftwareRendering().set(clients.getSoftwareRendering());
+            task.getCommandPrefix().set(clients.getCommandPrefix());
+            task.getOutputDirectory().set(project.getLayout().getBuildDirectory().dir("obumbratio/launch"));
+        });
+    }
+
+    private void configureBenchmarks(Project project, ShadersExtension extension) {
+        final ShadersExtension.Benchmark benchmark = extension.getBenchmark();
+
+        extension.getImplementations().forEach(implementation -> getOrCreateRunConfigurations(project, extension, implementation).forEach(run -> {
+            final String taskName = "benchmark%s".formatted(StringUtils.capitalize(run.name()));
+            final Provider<Directory> outputDirectory = project.getLayout().getBuildDirectory().dir("obumbratio/benchmark/%s".formatted(run.name()));
+
+            project.getTasks().register(taskName, BenchmarkShaderRun.class, task -> {
+                RunUtils.configureLaunchFrom(project, extension.getPlatform(), run, task.getLaunch());
+                task.dependsOn(project.getTasks().named(RunUtils.getRunTaskName(run)).map(Task::getTaskDependencies));
+
+                task.getWorld().set(benchmark.getWorld());
+                task.getWarmup().set(benchmark.getWarmup());
+                task.getDuration().set(benchmark.getDuration());
+                task.getLaunchTimeout().set(benchmark.getTimeout());
+                task.getSoftwareRendering().set(benchmark.getSoftwareRendering());
+                task.getCommandPrefix().set(benchmark.getCommandPrefix());
+                task.getBaseline().set(benchmark.getBaseline());
+                task.getMaxRegression().set(benchmark.getMaxRegression());
+                task.getOutputDirectory().set(outputDirectory);
+                task.getReport().set(outputDirectory.map(directory -> directory.file("report.json")));
+            });
+        }));
+    }
+
+    private void configureShaderpacks(Project project, ShadersExtension extension, Configuration shaderpacks) {
+        final List<RunConfiguration> shaderRuns = new ArrayList<>();
+        extension.getImplementations().forEach(implementation -> shaderRuns.addAll(getOrCreateRunConfigurations(project, extension, implementation)));
+        final List<RunConfiguration> runs = RunUtils.distinctByWorkDirectory(shaderRuns);
+
+        final TaskProvider<?> processResources = project.getTasks().named("processResources");
+        final boolean shared = extension.getRuns().getShareContent().get() && extension.getRuns().getSharedEntries().get().contains("shaderpacks");
+
+        if (!shaderpacks.getDependencies().isEmpty()) {
+            if (shared) {
+                //All runs link to the same shaderpacks directory, so they only need to be installed once
+                final TaskProvider<InstallShaderpacks> installShaderpacks = registerInstallShaderpacks(project, extension, shaderpacks, "installShaderpacks", extension.getRuns().getSharedDirectory().map(directory -> directory.dir("shaderpacks")));
+                processResources.configure(task -> task.dependsOn(installShaderpacks));
+            } else {
+                runs.forEach(run -> {
+                    final String taskName = "installShaderpacks%s".formatted(StringUtils.capitalize(run.name()));
+                    final TaskProvider<InstallShaderpacks> installShaderpacks = registerInstallShaderpacks(project, extension, shaderpacks, taskName, run.workDirectory().map(directory -> directory.dir("shaderpacks")));
+                    processResources.configure(task -> task.dependsOn(installShaderpacks));
+                });
+            }
+        }
+
+        if (extension.getShaderpacks().getDefaultPack().isPresent()) {
+            runs.forEach(run -> {
+                final String taskName = "configureIris%s".formatted(StringUtils.capitalize(run.name()));
+                final TaskProvider<ConfigureIris> configureIris = project.getTasks().register(taskName, ConfigureIris.class, task -> {
+                    task.getConfigFile().set(run.workDirectory().map(directory -> directory.file("config/iris.properties")));
+                    task.getShaderpack().set(extension.getShaderpacks().getDefaultPack());
+                });
+
+                processResources.configure(task -> task.dependsOn(configureIris));
+            });
+        }
+    }
+
+    private TaskProvider<InstallShaderpacks> registerInstallShaderpacks(Project project, ShadersExtension extension, Configuration shaderpacks, String taskName, Provider<Directory> shaderpacksDirectory) {
+        return project.getTasks().register(taskName, InstallShaderpacks.class, task -> {
+            task.getShaderpacksDirectory().set(shaderpacksDirectory);
+            task.getShaderpackFiles().from(shaderpacks);
+            task.getLink().set(extension.getShaderpacks().getLink());
+            task.mustRunAfter(project.getTasks().withType(LinkSharedContent.class));
+        });
+    }
+
+    private void configureClassDataSharing(Project project, Platform platform, Implementation implementation, ConfigurationSetup configurationSetup, Set<RunConfiguration> runs) {
+        final SourceSet sourceSet = SourceSetUtils.getOrCreateShaderSourceSetIn(project, platform, implementation);
+        final TaskProvider<?> processResources = project.getTasks().named("processResources");
+
+        //-XX:+AutoCreateSharedArchive was added in Java 19, older JVMs refuse to start with it
+        final int javaVersion = project.getExtensions().getByType(JavaPluginExtension.class).getToolchain().getLanguageVersion()
+                .map(JavaLanguageVersion::asInt)
+                .getOrElse(Integer.parseInt(JavaVersion.current().getMajorVersion()));
+        if (javaVersion < 19) {
+            project.getLogger().warn("Class data sharing requires Java 19 or newer, but the runs of {} use Java {}. It is not enabled.", project.getPath(), javaVersion);
+            return;
+        }
+
+        runs.forEach(run -> {
+            final Provider<Directory> cdsDirectory = project.getLayout().getBuildDirectory().dir("obumbratio/cds/%s".formatted(run.name()));
+            final File archive = cdsDirectory.get().file("client.jsa").getAsFile();
+
+            final String taskName = "prepareClassDataArchive%s".formatted(StringUtils.capitalize(run.name()));
+            final TaskProvider<PrepareClassDataArchive> prepareClassDataArchive = project.getTasks().register(taskName, PrepareClassDataArchive.class, task -> {
+                //Only the dependencies are tracked, the classes of the project itself and of the mods are loaded by the mod loader and never archived
+                task.getRuntimeClasspath().from(project.getConfigurations().getByName(sourceSet.getRuntimeClasspathConfigurationName()));
+                task.getRuntimeClasspath().from(configurationSetup.localRuntimeOnly());
+                task.getArchiveFile().set(archive);
+                task.getClasspathHashFile().set(cdsDirectory.map(directory -> directory.file("classpath.sha256")));
+            });
+
+            RunUtils.addJvmArguments(project, platform, run, List.of(
+                    "-XX:+AutoCreateSharedArchive",
+                    "-XX:SharedArchiveFile=%s".formatted(archive.getAbsolutePath())
+            ));
+
+            processResources.configure(task -> {
+                task.dependsOn(prepareClassDataArchive);
+            });
+        });
+    }
+
+    private void configureSharedContent(Project project, ShadersExtension extension) {
+        final List<RunConfiguration> runs = new ArrayList<>();
+        runs.add(RunUtils.getBaseRunFor(project, extension.getPlatform()));
+        extension.getImplementations().forEach(implementation -> runs.addAll(getOrCreateRunConfigurations(project, extension, implementation)));
+
+        final TaskProvider<?> processResources = project.getTasks().named("processResources");
+
+        //Every directory is linked by a single task, so tasks never race on the same directory
+        RunUtils.distinctByWorkDirectory(runs).forEach(run -> {
+            final String taskName = "linkSharedContent%s".formatted(StringUtils.capitalize(run.name()));
+            final TaskProvider<LinkSharedContent> linkSharedContent = project.getTasks().register(taskName, LinkSharedContent.class, task -> {
+                task.getRunDirectory().set(run.workDirectory());
+                task.getSharedDirectory().set(extension.getRuns().getSharedDirectory());
+                task.getSharedEntries().set(extension.getRuns().getSharedEntries());
+            });
+
+            processResources.configure(task -> {
+                task.dependsOn(linkSharedContent);
             });
         });
     }
 
     private void configureConventions(Project project, ShadersExtension extension) {
-        extension.setIsEnabled(parseProperty(project, "compat.shaders.enabled"));
+        extension.setIsEnabled(parseProperty(project, "compat.shaders.enabled").getOrElse(false));
+
+        extension.getRuns().getShareContent().convention(parseProperty(project, "compat.shaders.runs.share").orElse(false));
+        extension.getRuns().getSharedDirectory().convention(project.getLayout().getProjectDirectory().dir("runs/client/shared"));
+        extension.getRuns().getClassDataSharing().convention(parseProperty(project, "compat.shaders.runs.cds").orElse(false));
+        extension.getRuns().getSyncSourceSetOutput().convention(parseProperty(project, "compat.shaders.runs.sync.output").orElse(false));
+        extension.getRuns().getSharedEntries().convention(List.of("shaderpacks", "resourcepacks", "options.txt"));
+
+        extension.getShaderpacks().getDefaultPack().convention(project.getProviders().gradleProperty("compat.shaders.shaderpacks.default"));
+        extension.getShaderpacks().getLink().convention(parseProperty(project, "compat.shaders.shaderpacks.link").orElse(false));
+
+        extension.getDocumentationJars().convention(parseProperty(project, "compat.shaders.documentation.jars").orElse(false));
+        extension.getTimeline().convention(parseProperty(project, "compat.shaders.timeline").orElse(false));
+
+        extension.getProfiling().getEnabled().convention(parseProperty(project, "compat.shaders.profiling").orElse(false));
+        extension.getProfiling().getDuration().convention(Duration.ofMinutes(2));
+        extension.getProfiling().getLimit().convention(20);
+
+        extension.getBenchmark().getWarmup().convention(Duration.ofSeconds(10));
+        extension.getBenchmark().getDuration().convention(Duration.ofSeconds(60));
+        extension.getBenchmark().getTimeout().convention(Duration.ofMinutes(10));
+        extension.getBenchmark().getSoftwareRendering().convention(parseProperty(project, "compat.shaders.benchmark.software").orElse(false));
+        extension.getBenchmark().getMaxRegression().convention(0.1);
+
+        extension.getClients().getMaxParallelClients().convention(project.getProviders().gradleProperty("compat.shaders.clients.parallel").map(Integer::parseInt).orElse(2));
+        extension.getClients().getMaxHeapSize().convention(project.getProviders().gradleProperty("compat.shaders.clients.heap").orElse("2G"));
+        extension.getClients().getDuration().convention(Duration.ofMinutes(2));
+        extension.getClients().getSoftwareRendering().convention(parseProperty(project, "compat.shaders.clients.software").orElse(false));
 
         extension.getVersions().getMinecraft().convention(project.getProviders().gradleProperty("minecraft.version"));
 
@@ -143,31 +493,44 @@ public abstract class ProjectPlugin implements Plugin<Project> {
         extension.getVersions().getIris().getJCpp().convention(project.getProviders().gradleProperty("compat.shaders.versions.iris.jcpp"));
     }
 
-    private boolean parseProperty(Project project, String key) {
-        if (!project.hasProperty(key)) {
-            return false;
+    //Only reads the gradle properties of the build, never the extra properties of this or any other project
+    private Provider<Boolean> parseProperty(Project project, String key) {
+        return project.getProviders().gradleProperty(key).map(Boolean::parseBoolean);
+    }
+
+    //Earlier versions also read the enabled flag from project properties, like those set through ext or in the
+    //gradle.properties of a subproject, those are ignored now
+    private void warnAboutProjectProperty(Project project, String key) {
+        if (project.getProviders().gradleProperty(key).isPresent() || !project.hasProperty(key)) {
+            return;
         }
 
-        return Boolean.parseBoolean(Objects.requireNonNull(project.property(key)).toString());
+        if (Boolean.parseBoolean(String.valueOf(project.findProperty(key)))) {
+            project.getLogger().warn("{} is set to true on {} through a project property, for example through ext or the gradle.properties of a subproject, which is no longer read. " +
+                    "The plugin is not enabled, move the property into the gradle.properties of the build or pass it with -P{}=true.", key, project.getPath(), key);
+        }
     }
 
     @SuppressWarnings("UnstableApiUsage")
     @Inject
     public abstract Problems getProblems();
 
+    @Inject
+    public abstract BuildEventsListenerRegistry getBuildEventsListenerRegistry();
+
     private void configureDependencies(Project project, ShadersExtension extension, Implementation implementation, ConfigurationSetup configurations) {
         if (extension.getPlatform().isNeoForge()) {
             if (!implementation.isSupported(Platform.NEOFORGE)) {
                 return;
             }
 
-            implementation.registerNeoForgeDependencies(project, extension.getVersions(), configurations);
+            implementation.registerNeoForgeDependencies(project, extension, configurations);
         } else if (extension.getPlatform().isFabric()) {
             if (!implementation.isSupported(Platform.FARBIC)) {
                 return;
             }
 
-            implementation.registerFabricDependencies(project, extension.getVersions(), configurations);
+            implementation.registerFabricDependencies(project, extension, configurations);
         }
 
         extension.getPlatform().configureIrisDependencies(project, extension, implementation, configurations);
@@ -227,12 +590,13 @@ public abstract class ProjectPlugin implements Plugin<Project> {
         final Property<String> sodiumVersion = extension.getVersions().getSodium().getVersion();
         final Property<String> sodiumFabricApi = extension.getVersions().getSodium().getFabricApi();
         final Property<String> sodiumFabricRenderer = extension.getVersions().getSodium().getFabricRenderer();
+        final boolean localSodium = extension.getLocal().getSodium().isConfigured();
 
-        if (sodiumVersion.isPresent() && sodiumFabricApi.isPresent() && sodiumFabricRenderer.isPresent()) {
+        if ((localSodium || sodiumVersion.isPresent()) && sodiumFabricApi.isPresent() && sodiumFabricRenderer.isPresent()) {
             return;
         }
 
-        if (!sodiumVersion.isPresent()) {
+        if (!localSodium && !sodiumVersion.isPresent()) {
             throw getProblems().getReporter().throwing(
                     new InvalidUserDataException("Sodium version is required to be set"),
                     createProblemId("obumbratio.shaders.versions.sodium.version.missing", "Sodium version is missing"),
@@ -266,12 +630,13 @@ public abstract class ProjectPlugin implements Plugin<Project> {
     private void validateRequiredEmbeddiumNeoForgeVersions(ShadersExtension extension) {
         final Property<String> embeddiumVersion = extension.getVersions().getEmbeddium();
         final Property<String> monocleVersion = extension.getVersions().getMonocle();
+        final boolean localEmbeddium = extension.getLocal().getEmbeddium().isConfigured();
 
-        if (embeddiumVersion.isPresent() && monocleVersion.isPresent()) {
+        if ((localEmbeddium || embeddiumVersion.isPresent()) && monocleVersion.isPresent()) {
             return;
         }
 
-        if (!embeddiumVersion.isPresent()) {
+        if (!localEmbeddium && !embeddiumVersion.isPresent()) {
             throw getProblems().getReporter().throwing(
                     new InvalidUserDataException("Embeddium version is required to be set"),
                     createProblemId("obumbratio.shaders.versions.embeddium.version.missing", "Embeddium version is missing"),
@@ -295,7 +660,7 @@ public abstract class ProjectPlugin implements Plugin<Project> {
     private void validateRequiredSodiumFabricVersions(ShadersExtension extension) {
         final Property<String> sodiumVersion = extension.getVersions().getSodium().getVersion();
 
-        if (sodiumVersion.isPresent()) {
+        if (sodiumVersion.isPresent() || extension.getLocal().getSodium().isConfigured()) {
             return;
         }
 
@@ -313,7 +678,7 @@ public abstract class ProjectPlugin implements Plugin<Project> {
     private void validateRequiredIrisNeoForgeVersions(ShadersExtension extension) {
         final Property<String> irisVersion = extension.getVersions().getIris().getVersion();
 
-        if (irisVersion.isPresent()) {
+        if (irisVersion.isPresent() || extension.getLocal().getIris().isConfigured()) {
             return;
         }
 
@@ -331,12 +696,13 @@ public abstract class ProjectPlugin implements Plugin<Project> {
         final Property<String> antlr4Runtime = extension.getVersions().getIris().getAntlr4Runtime();
         final Property<String> glslTransformer = extension.getVersions().getIris().getGlslTransformer();
         final Property<String> jCpp = extension.getVersions().getIris().getJCpp();
+        final boolean localIris = extension.getLocal().getIris().isConfigured();
 
-        if (irisVersion.isPresent() && antlr4Runtime.isPresent() && glslTransformer.isPresent() && jCpp.isPresent()) {
+        if ((localIris || irisVersion.isPresent()) && antlr4Runtime.isPresent() && glslTransformer.isPresent() && jCpp.isPresent()) {
             return;
         }
 
-        if (!irisVersion.isPresent()) {
+        if (!localIris && !irisVersion.isPresent()) {
             throw getProblems().getReporter().throwing(
                     new InvalidUserDataException("Iris version is required to be set"),
                     createProblemId("obumbratio.shaders.versions.iris.version.missing", "Iris version is missing"),
@@ -5,10 +5,15 @@ import com.communi.suggestu.obumbratio.model.Platform;
 import org.gradle.api.Action;
 import org.gradle.api.Named;
 import org.gradle.api.Project;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.provider.SetProperty;
 
 import javax.inject.Inject;
+import java.time.Duration;
 import java.util.EnumSet;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -20,11 +25,23 @@ public abstract class ShadersExtension {
     private Platform platform;
     private EnumSet<Implementation> implementations = EnumSet.noneOf(Implementation.class);
     private Versions versions;
+    private Runs runs;
+    private Shaderpacks shaderpacks;
+    private Benchmark benchmark;
+    private Profiling profiling;
+    private LocalBuilds local;
+    private Clients clients;
 
     @Inject
     public ShadersExtension(final Project project, BiConsumer<ShadersExtension, Implementation> configured) {
         this.configured = configured;
         this.versions = project.getObjects().newInstance(Versions.class, project);
+        this.runs = project.getObjects().newInstance(Runs.class);
+        this.shaderpacks = project.getObjects().newInstance(Shaderpacks.class);
+        this.benchmark = project.getObjects().newInstance(Benchmark.class);
+        this.profiling = project.getObjects().newInstance(Profiling.class);
+        this.local = project.getObjects().newInstance(LocalBuilds.class, project);
+        this.clients = project.getObjects().newInstance(Clients.class);
     }
 
     public boolean getIsEnabled() {
@@ -97,6 +114,67 @@ public abstract class ShadersExtension {
         configure.execute(getVersions());
     }
 
+    public abstract Property<Boolean> getTimeline();
+
+    public void timeline() {
+        getTimeline().set(true);
+    }
+
+    //Forces the sources and javadoc jars of the shader source sets to be built, outside of publishing builds
+    public abstract Property<Boolean> getDocumentationJars();
+
+    public void documentationJars() {
+        getDocumentationJars().set(true);
+    }
+
+    public Runs getRuns() {
+        return runs;
+    }
+
+    public void runs(final Action<Runs> configure) {
+        configure.execute(getRuns());
+    }
+
+    public Shaderpacks getShaderpacks() {
+        return shaderpacks;
+    }
+
+    public void shaderpacks(final Action<Shaderpacks> configure) {
+        configure.execute(getShaderpacks());
+    }
+
+    public Benchmark getBenchmark() {
+        return benchmark;
+    }
+
+    public void benchmark(final Action<Benchmark> configure) {
+        configure.execute(getBenchmark());
+    }
+
+    public Profiling getProfiling() {
+        return profiling;
+    }
+
+    public void profiling(final Action<Profiling> configure) {
+        configure.execute(getProfiling());
+    }
+
+    public Clients getClients() {
+        return clients;
+    }
+
+    public void clients(final Action<Clients> configure) {
+        configure.execute(getClients());
+    }
+
+    public LocalBuilds getLocal() {
+        return local;
+    }
+
+    public void local(final Action<LocalBuilds> configure) {
+        configure.execute(getLocal());
+    }
+
     public Set<Implementation> getImplementations() {
         return this.implementations;
     }
@@ -154,4 +232,155 @@ public abstract class ShadersExtension {
             public abstract Property<String> getJCpp();
         }
     }
+
+    public abstract static class Runs {
+
+        public abstract Property<Boolean> getShareContent();
+
+        public abstract DirectoryProperty getSharedDirectory();
+
+        //Names of the files and directories, relative to the run directory, that are linked into the shared directory
+        public abstract SetProperty<String> getSharedEntries();
+
+        public abstract Property<Boolean> getClassDataSharing();
+
+        //Also recompiles the shader source set when its sources change while syncing the mods of a run
+        public abstract Property<Boolean> getSyncSourceSetOutput();
+
+        public void shareContent() {
+            getShareContent().set(true);
+        }
+
+        public void classDataSharing() {
+            getClassDataSharing().set(true);
+        }
+    }
+
+    public abstract static class Shaderpacks {
+
+        //The file name of the shaderpack Iris should load, as it appears in the shaderpacks directory
+        public abstract Property<String> getDefaultPack();
+
+        public abstract Property<Boolean> getLink();
+
+        public void link() {
+            getLink().set(true);
+        }
+    }
+
+    public abstract static class Benchmark {
+
+        //The world the benchmark runs in, it is copied into the saves directory of the run before every benchmark
+        public abstract DirectoryProperty getWorld();
+
+        public abstract Property<Duration> getWarmup();
+
+        public abstract Property<Duration> getDuration();
+
+        public abstract Property<Duration> getTimeout();
+
+        public abstract Property<Boolean> getSoftwareRendering();
+
+        //A command the client is launched with, for example `xvfb-run -a` on machines without a display
+        public abstract ListProperty<String> getCommandPrefix();
+
+        public abstract RegularFileProperty getBaseline();
+
+        //The fraction by which a metric may exceed the baseline before the benchmark fails
+        public abstract Property<Double> getMaxRegression();
+
+        public void softwareRendering() {
+            getSoftwareRendering().set(true);
+        }
+    }
+
+    public abstract static class Profiling {
+
+        public abstract Property<Boolean> getEnabled();
+
+        //How long the flight recorder records after the game started
+        public abstract Property<Duration> getDuration();
+
+        //The packages the hotspots are attributed to, next to the classes of the shader source set
+        public abstract SetProperty<String> getPackages();
+
+        //The amount of hotspots listed per category in the summary
+        public abstract Property<Integer> getLimit();
+
+        public void enable() {
+            getEnabled().set(true);
+        }
+    }
+
+    public abstract static class Clients {
+
+        //The amount of clients launchClients runs at the same time
+        public abstract Property<Integer> getMaxParallelClients();
+
+        //The maximum heap size of every client, for example `2G`
+        public abstract Property<String> getMaxHeapSize();
+
+        //How long every client runs before it is stopped
+        public abstract Property<Duration> getDuration();
+
+        public abstract Property<Boolean> getSoftwareRendering();
+
+        //A command the clients are launched with, for example `xvfb-run -a` on machines without a display
+        public abstract ListProperty<String> getCommandPrefix();
+
+        public void softwareRendering() {
+            getSoftwareRendering().set(true);
+        }
+    }
+
+    public abstract static class LocalBuilds {
+
+        private final LocalBuild sodium;
+        private final LocalBuild embeddium;
+        private final LocalBuild iris;
+
+        @Inject
+        public LocalBuilds(final Project project) {
+            this.sodium = project.getObjects().newInstance(LocalBuild.class);
+            this.embeddium = project.getObjects().newInstance(LocalBuild.class);
+            this.iris = project.getObjects().newInstance(LocalBuild.class);
+        }
+
+        public LocalBuild getSodium() {
+            return sodium;
+        }
+
+        public void sodium(final Action<LocalBuild> configure) {
+            configure.execute(getSodium());
+        }
+
+        public LocalBuild getEmbeddium() {
+            return embeddium;
+        }
+
+        public void embeddium(final Action<LocalBuild> configure) {
+            configure.execute(getEmbeddium());
+        }
+
+        public LocalBuild getIris() {
+            return iris;
+        }
+
+        public void iris(final Action<LocalBuild> configure) {
+            configure.execute(getIris());
+        }
+    }
+
+    public abstract static class LocalBuild {
+
+        //The group and name of a module produced by an included build, Gradle substitutes it with the output of that build
+        public abstract Property<String> getModule();
+
+        //Jars used as is, for example the build/libs directory of a local checkout
+        public abstract ConfigurableFileCollection getJars();
+
+        public boolean isConfigured() {
+            return getModule().isPresent() || !getJars().getFrom().isEmpty();
+        }
+    }
 }
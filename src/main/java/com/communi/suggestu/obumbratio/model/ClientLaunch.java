@@ -0,0 +1,40 @@
+package com.communi.suggestu.obumbratio.model;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+
+/**
+ * Everything needed to start a client run outside of its own run task.
+ */
+public abstract class ClientLaunch {
+
+    @Input
+    public abstract Property<String> getName();
+
+    @Input
+    public abstract Property<String> getJavaExecutable();
+
+    @Input
+    public abstract Property<String> getMainClass();
+
+    @Classpath
+    public abstract ConfigurableFileCollection getClasspath();
+
+    @Input
+    public abstract ListProperty<String> getJvmArguments();
+
+    @Input
+    public abstract ListProperty<String> getArguments();
+
+    @Input
+    public abstract MapProperty<String, String> getEnvironment();
+
+    @Internal
+    public abstract DirectoryProperty getWorkingDirectory();
+}
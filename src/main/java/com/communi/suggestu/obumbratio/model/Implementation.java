@@ -1,6 +1,7 @@
 package com.communi.suggestu.obumbratio.model;
 
 import com.communi.suggestu.obumbratio.extensions.ShadersExtension;
+import com.communi.suggestu.obumbratio.utils.DependencyUtils;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.provider.Provider;
@@ -25,37 +26,47 @@ public enum Implementation {
         return this == EMBEDDIUM;
     }
 
-    public void registerFabricDependencies(Project project, ShadersExtension.Versions versions, ConfigurationSetup configurations) {
+    public void registerFabricDependencies(Project project, ShadersExtension shadersExtension, ConfigurationSetup configurations) {
         if (this == SODIUM) {
-            registerSodiumFabricDependencies(project, versions, configurations);
+            registerSodiumFabricDependencies(project, shadersExtension, configurations);
         }
     }
 
-    public void registerNeoForgeDependencies(Project project, ShadersExtension.Versions versions, ConfigurationSetup configurations) {
+    public void registerNeoForgeDependencies(Project project, ShadersExtension shadersExtension, ConfigurationSetup configurations) {
         if (this == SODIUM) {
-            registerSodiumNeoForgeDependencies(project, versions, configurations);
+            registerSodiumNeoForgeDependencies(project, shadersExtension, configurations);
         } else if (this == EMBEDDIUM) {
-            registerEmbeddiumNeoForgeDependencies(project, versions, configurations);
+            registerEmbeddiumNeoForgeDependencies(project, shadersExtension, configurations);
         }
     }
 
-    public static void registerSodiumFabricDependencies(Project project, ShadersExtension.Versions versions, ConfigurationSetup configurations) {
+    public static void registerSodiumFabricDependencies(Project project, ShadersExtension shadersExtension, ConfigurationSetup configurations) {
+        final ShadersExtension.Versions versions = shadersExtension.getVersions();
         final Provider<Dependency> sodium =
-                versions.getMinecraft().zip(
-                        versions.getSodium().getVersion(),
-                        "maven.modrinth:sodium:mc%s-%s-fabric"::formatted
-                ).map(project.getDependencies()::create);
+                DependencyUtils.create(
+                        project,
+                        shadersExtension.getLocal().getSodium(),
+                        versions.getMinecraft().zip(
+                                versions.getSodium().getVersion(),
+                                "maven.modrinth:sodium:mc%s-%s-fabric"::formatted
+                        )
+                );
 
         configurations.localCompileOnly().getDependencies().addLater(sodium);
         configurations.localRuntimeOnly().getDependencies().addLater(sodium);
     }
 
-    public static void registerSodiumNeoForgeDependencies(Project project, ShadersExtension.Versions versions, ConfigurationSetup configurations) {
+    public static void registerSodiumNeoForgeDependencies(Project project, ShadersExtension shadersExtension, ConfigurationSetup configurations) {
+        final ShadersExtension.Versions versions = shadersExtension.getVersions();
         final Provider<Dependency> sodium =
-                versions.getMinecraft().zip(
-                        versions.getSodium().getVersion(),
-                        "maven.modrinth:sodium:mc%s-%s-neoforge"::formatted
-                ).map(project.getDependencies()::create);
+                DependencyUtils.create(
+                        project,
+                        shadersExtension.getLocal().getSodium(),
+                        versions.getMinecraft().zip(
+                                versions.getSodium().getVersion(),
+                                "maven.modrinth:sodium:mc%s-%s-neoforge"::formatted
+                        )
+                );
         final Provider<Dependency> fabricApi =
                 versions.getSodium().getFabricApi()
                         .map("org.sinytra.forgified-fabric-api:fabric-api-base:%s"::formatted)
@@ -72,13 +83,17 @@ public enum Implementation {
         configurations.localCompileOnly().getDependencies().addLater(fabricRenderer);
     }
 
-    public static void registerEmbeddiumNeoForgeDependencies(Project project, ShadersExtension.Versions versions, ConfigurationSetup configurations) {
+    public static void registerEmbeddiumNeoForgeDependencies(Project project, ShadersExtension shadersExtension, ConfigurationSetup configurations) {
+        final ShadersExtension.Versions versions = shadersExtension.getVersions();
         final Provider<Dependency> embeddium =
-                versions.getEmbeddium()
-                        .zip(
+                DependencyUtils.create(
+                        project,
+                        shadersExtension.getLocal().getEmbeddium(),
+                        versions.getEmbeddium().zip(
                                 versions.getMinecraft(),
                                 "maven.modrinth:embeddium:%s+mc%s"::formatted
-                        ).map(project.getDependencies()::create);
+                        )
+                );
         final Provider<Dependency> monocle =
                 versions.getMonocle()
                         .map("maven.modrinth:monocle-iris:%s"::formatted)
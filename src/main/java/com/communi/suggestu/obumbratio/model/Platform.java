@@ -1,6 +1,7 @@
 package com.communi.suggestu.obumbratio.model;
 
 import com.communi.suggestu.obumbratio.extensions.ShadersExtension;
+import com.communi.suggestu.obumbratio.utils.DependencyUtils;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
@@ -29,10 +30,14 @@ public enum Platform {
     private void configureIrisFabricDependencies(Project project, ShadersExtension shadersExtension, Implementation implementation, ConfigurationSetup configurations) {
         final ShadersExtension.Versions versions = shadersExtension.getVersions();
         final Provider<Dependency> iris =
-                versions.getIris().getVersion().zip(
-                        versions.getMinecraft(),
-                        "maven.modrinth:iris:%s+%s-fabric"::formatted
-                ).map(project.getDependencies()::create);
+                DependencyUtils.create(
+                        project,
+                        shadersExtension.getLocal().getIris(),
+                        versions.getIris().getVersion().zip(
+                                versions.getMinecraft(),
+                                "maven.modrinth:iris:%s+%s-fabric"::formatted
+                        )
+                );
         final Provider<Dependency> antlr4Runtime =
                 versions.getIris().getAntlr4Runtime()
                         .map("org.antlr:antlr4-runtime:%s"::formatted)
@@ -60,10 +65,14 @@ public enum Platform {
     private void configureIrisNeoForgeDependencies(Project project, ShadersExtension shadersExtension, Implementation implementation, ConfigurationSetup configurations) {
         final ShadersExtension.Versions versions = shadersExtension.getVersions();
         final Provider<Dependency> iris =
-                versions.getIris().getVersion().zip(
-                        versions.getMinecraft(),
-                        "maven.modrinth:iris:%s+%s-neoforge"::formatted
-                ).map(project.getDependencies()::create);
+                DependencyUtils.create(
+                        project,
+                        shadersExtension.getLocal().getIris(),
+                        versions.getIris().getVersion().zip(
+                                versions.getMinecraft(),
+                                "maven.modrinth:iris:%s+%s-neoforge"::formatted
+                        )
+                );
 
         configurations.localCompileOnly().getDependencies().addLater(iris);
 
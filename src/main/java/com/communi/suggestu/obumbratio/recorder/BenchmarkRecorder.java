@@ -0,0 +1,167 @@
+package com.communi.suggestu.obumbratio.recorder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.instrument.Instrumentation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.LongConsumer;
+
+/**
+ * The Java agent which records the samples of a benchmark inside the game.
+ * <p>
+ * When {@value #WINDOW_MARKER} is set, the agent also marks the first frame for the build timeline through a
+ * {@link WindowMarker}. Either of the two can be used without the other.
+ * <p>
+ * Every buffer swap of the game window is a frame. Recording starts once the integrated server of the benchmark world
+ * is running and the warmup passed, and stops after the configured duration by writing the final {@code done} line.
+ * <p>
+ * The game code reaches the recorder through system properties, which are visible from every class loader and module:
+ * {@value #FRAME_HOOK} holds a {@link Runnable} called on every buffer swap, and {@value #CHUNK_HOOK} holds a
+ * {@link LongConsumer} development code can pass the nanoseconds of a chunk build to.
+ * <p>
+ * This class is loaded inside the game, it must only depend on the JDK.
+ */
+public final class BenchmarkRecorder {
+
+    public static final String FRAME_HOOK = "obumbratio.benchmark.hook.frame";
+    public static final String CHUNK_HOOK = "obumbratio.benchmark.hook.chunk";
+    public static final String WINDOW_MARKER = "obumbratio.timeline.window";
+
+    private static final String SERVER_THREAD = "Server thread";
+    private static final long WORLD_CHECK_INTERVAL = 1_000_000_000L;
+
+    private final Path samplesFile;
+    private final long warmup;
+    private final long duration;
+
+    private State state = State.WAITING_FOR_WORLD;
+    private long nextWorldCheck;
+    private long warmupEnd;
+    private long measurementEnd;
+    private long lastFrame;
+    private BufferedWriter writer;
+
+    private BenchmarkRecorder(final Path samplesFile, final long warmup, final long duration) {
+        this.samplesFile = samplesFile;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    public static void premain(final String arguments, final Instrumentation instrumentation) {
+        final String samplesFile = System.getProperty("obumbratio.benchmark.samples");
+        final String windowMarker = System.getProperty(WINDOW_MARKER);
+        if (samplesFile == null && windowMarker == null) {
+            return;
+        }
+
+        Runnable frameHook = () -> {};
+        if (samplesFile != null) {
+            final BenchmarkRecorder recorder = new BenchmarkRecorder(
+                    Path.of(samplesFile),
+                    Long.getLong("obumbratio.benchmark.warmup", 10_000L) * 1_000_000L,
+                    Long.getLong("obumbratio.benchmark.duration", 60_000L) * 1_000_000L
+            );
+
+            frameHook = recorder::frame;
+            System.getProperties().put(CHUNK_HOOK, (LongConsumer) recorder::chunk);
+        }
+
+        if (windowMarker != null) {
+            frameHook = new WindowMarker(Path.of(windowMarker), frameHook);
+        }
+
+        System.getProperties().put(FRAME_HOOK, frameHook);
+        instrumentation.addTransformer(new SwapBuffersTransformer());
+    }
+
+    private synchronized void frame() {
+        final long now = System.nanoTime();
+
+        //Plain branches, a switch over the enum would need an additional synthetic class in the agent jar
+        if (state == State.WAITING_FOR_WORLD) {
+            if (now < nextWorldCheck) {
+                return;
+            }
+
+            nextWorldCheck = now + WORLD_CHECK_INTERVAL;
+            if (isWorldRunning()) {
+                state = State.WARMUP;
+                warmupEnd = now + warmup;
+            }
+        } else if (state == State.WARMUP) {
+            if (now >= warmupEnd) {
+                open();
+                state = State.MEASURING;
+                measurementEnd = now + duration;
+                lastFrame = now;
+            }
+        } else if (state == State.MEASURING) {
+            write("frame " + (now - lastFrame));
+            lastFrame = now;
+
+            if (now >= measurementEnd) {
+                write("done");
+                close();
+                state = State.DONE;
+            }
+        }
+    }
+
+    private synchronized void chunk(final long nanoseconds) {
+        if (state == State.MEASURING) {
+            write("chunk " + nanoseconds);
+        }
+    }
+
+    private static boolean isWorldRunning() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+
+        final Thread[] threads = new Thread[root.activeCount() * 2];
+        final int count = root.enumerate(threads, true);
+        for (int i = 0; i < count; i++) {
+            if (SERVER_THREAD.equals(threads[i].getName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(samplesFile.toAbsolutePath().getParent());
+            writer = Files.newBufferedWriter(samplesFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the benchmark samples file: %s".formatted(samplesFile), e);
+        }
+    }
+
+    private void write(final String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the benchmark samples file: %s".formatted(samplesFile), e);
+        }
+    }
+
+    private void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close the benchmark samples file: %s".formatted(samplesFile), e);
+        }
+    }
+
+    private enum State {
+        WAITING_FOR_WORLD,
+        WARMUP,
+        MEASURING,
+        DONE
+    }
+}
@@ -0,0 +1,68 @@
+package com.communi.suggestu.obumbratio.recorder;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+
+/**
+ * Calls the frame hook of the {@link BenchmarkRecorder} at the start of {@code GLFW.glfwSwapBuffers}.
+ * <p>
+ * The injected code only uses JDK classes, so it links in every class loader and module the game loads LWJGL in. It
+ * uses the ASM the mod loaders put on the classpath of the game.
+ */
+public final class SwapBuffersTransformer implements ClassFileTransformer {
+
+    private static final String GLFW = "org/lwjgl/glfw/GLFW";
+
+    @Override
+    public byte[] transform(final ClassLoader loader, final String className, final Class<?> classBeingRedefined, final ProtectionDomain protectionDomain, final byte[] classfileBuffer) {
+        if (!GLFW.equals(className)) {
+            return null;
+        }
+
+        final ClassReader reader = new ClassReader(classfileBuffer);
+        final ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+        reader.accept(new GlfwVisitor(writer), 0);
+        return writer.toByteArray();
+    }
+
+    private static final class GlfwVisitor extends ClassVisitor {
+
+        private GlfwVisitor(final ClassVisitor delegate) {
+            super(Opcodes.ASM9, delegate);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(final int access, final String name, final String descriptor, final String signature, final String[] exceptions) {
+            final MethodVisitor visitor = super.visitMethod(access, name, descriptor, signature, exceptions);
+            if (!name.equals("glfwSwapBuffers") || !descriptor.equals("(J)V")) {
+                return visitor;
+            }
+
+            return new SwapBuffersVisitor(visitor);
+        }
+    }
+
+    private static final class SwapBuffersVisitor extends MethodVisitor {
+
+        private SwapBuffersVisitor(final MethodVisitor delegate) {
+            super(Opcodes.ASM9, delegate);
+        }
+
+        //((Runnable) System.getProperties().get(FRAME_HOOK)).run(), without branches, so no frames have to be computed
+        @Override
+        public void visitCode() {
+            super.visitCode();
+            super.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/System", "getProperties", "()Ljava/util/Properties;", false);
+            super.visitLdcInsn(BenchmarkRecorder.FRAME_HOOK);
+            super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/util/Properties", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", false);
+            super.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Runnable");
+            super.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/lang/Runnable", "run", "()V", true);
+        }
+    }
+}
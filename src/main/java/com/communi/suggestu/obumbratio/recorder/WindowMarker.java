@@ -0,0 +1,48 @@
+package com.communi.suggestu.obumbratio.recorder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Marks the first buffer swap of the game window, the moment the window shows the game, for the build timeline.
+ * <p>
+ * The marker file receives a single line with the start of the JVM and the first frame, both in milliseconds since the
+ * epoch. Every frame is passed on to the frame hook which was installed before.
+ * <p>
+ * This class is loaded inside the game, it must only depend on the JDK.
+ */
+final class WindowMarker implements Runnable {
+
+    private final Path markerFile;
+    private final Runnable next;
+
+    private boolean marked;
+
+    WindowMarker(final Path markerFile, final Runnable next) {
+        this.markerFile = markerFile;
+        this.next = next;
+    }
+
+    @Override
+    public void run() {
+        if (!marked) {
+            marked = true;
+            mark(System.currentTimeMillis());
+        }
+
+        next.run();
+    }
+
+    private void mark(final long firstFrame) {
+        final long jvmStart = ProcessHandle.current().info().startInstant().map(Instant::toEpochMilli).orElse(firstFrame);
+        try {
+            Files.createDirectories(markerFile.toAbsolutePath().getParent());
+            Files.writeString(markerFile, jvmStart + " " + firstFrame);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the window marker: %s".formatted(markerFile), e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.communi.suggestu.obumbratio.services;
+
+import groovy.json.JsonOutput;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+import org.gradle.tooling.events.task.TaskFailureResult;
+import org.gradle.tooling.events.task.TaskFinishEvent;
+import org.gradle.tooling.events.task.TaskOperationResult;
+import org.gradle.tooling.events.task.TaskSkippedResult;
+import org.gradle.tooling.events.task.TaskSuccessResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the timeline of the tasks of a build, and the steps tasks report themselves, and writes it as a Chrome
+ * trace once the build finished. The trace can be opened in {@code chrome://tracing} or Perfetto.
+ * <p>
+ * Run tasks register the window marker of their game, see {@link #recordLaunch(String, long, Path)}. The game writes it
+ * on its first frame, so the launch of the JVM and the time until the window appears are added once the build finished.
+ */
+public abstract class BuildTimelineService implements BuildService<BuildTimelineService.Parameters>, OperationCompletionListener, AutoCloseable {
+
+    public static final String NAME = "obumbratioTimeline";
+
+    private final List<Span> spans = new ArrayList<>();
+    private final Set<String> recordedTasks = new HashSet<>();
+    private final List<Launch> launches = new ArrayList<>();
+
+    public interface Parameters extends BuildServiceParameters {
+        RegularFileProperty getOutputFile();
+    }
+
+    @Override
+    public void onFinish(final FinishEvent event) {
+        if (!(event instanceof TaskFinishEvent taskFinishEvent)) {
+            return;
+        }
+
+        //Every project which enables the timeline subscribes the service, so a task can be reported more than once
+        if (!markRecorded(taskFinishEvent.getDescriptor().getTaskPath())) {
+            return;
+        }
+
+        final TaskOperationResult result = taskFinishEvent.getResult();
+        final Map<String, Object> arguments = new LinkedHashMap<>();
+        arguments.put("outcome", outcome(result));
+        if (result instanceof TaskSuccessResult success) {
+            arguments.put("cache", success.isFromCache() ? "hit" : "miss");
+        }
+
+        record(new Span(taskFinishEvent.getDescriptor().getTaskPath(), "task", result.getStartTime(), result.getEndTime(), arguments));
+    }
+
+    /**
+     * Records a step which happened inside a task, for example the installation of a single file.
+     *
+     * @param name      The name of the step.
+     * @param startTime The start of the step, in milliseconds since the epoch.
+     * @param endTime   The end of the step, in milliseconds since the epoch.
+     * @param arguments Additional information about the step, like the amount of bytes it processed.
+     */
+    public void recordStep(final String name, final long startTime, final long endTime, final Map<String, Object> arguments) {
+        record(new Span(name, "step", startTime, endTime, new LinkedHashMap<>(arguments)));
+    }
+
+    /**
+     * Records the launch of a game by a run task.
+     *
+     * @param taskPath     The path of the run task.
+     * @param launchTime   The moment the game was launched, in milliseconds since the epoch.
+     * @param windowMarker The file the game writes the start of its JVM and its first frame to.
+     */
+    public synchronized void recordLaunch(final String taskPath, final long launchTime, final Path windowMarker) {
+        launches.add(new Launch(taskPath, launchTime, windowMarker));
+    }
+
+    private synchronized boolean markRecorded(final String taskPath) {
+        return recordedTasks.add(taskPath);
+    }
+
+    private synchronized void record(final Span span) {
+        spans.add(span);
+    }
+
+    @Override
+    public synchronized void close() {
+        final Path outputFile = getParameters().getOutputFile().get().getAsFile().toPath();
+        launches.forEach(this::recordWindow);
+
+        //Chrome traces require the spans of a single thread to nest, so overlapping spans are spread over lanes
+        final List<Long> laneEnds = new ArrayList<>();
+        final List<Map<String, Object>> events = new ArrayList<>();
+        spans.stream().sorted(Comparator.comparingLong(Span::startTime)).forEach(span -> {
+            int lane = 0;
+            while (lane < laneEnds.size() && laneEnds.get(lane) > span.startTime()) {
+                lane++;
+            }
+
+            if (lane == laneEnds.size()) {
+                laneEnds.add(span.endTime());
+            } else {
+                laneEnds.set(lane, span.endTime());
+            }
+
+            final Map<String, Object> event = new LinkedHashMap<>();
+            event.put("name", span.name());
+            event.put("cat", span.category());
+            event.put("ph", "X");
+            event.put("ts", span.startTime() * 1000);
+            event.put("dur", (span.endTime() - span.startTime()) * 1000);
+            event.put("pid", 1);
+            event.put("tid", lane);
+            event.put("args", span.arguments());
+            events.add(event);
+        });
+
+        try {
+            Files.createDirectories(outputFile.getParent());
+            Files.writeString(outputFile, JsonOutput.toJson(Map.of("traceEvents", events, "displayTimeUnit", "ms")));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the build timeline to: %s".formatted(outputFile), e);
+        }
+    }
+
+    //Games which never showed their window, for example because they crashed while loading, did not write their marker
+    private void recordWindow(final Launch launch) {
+        if (!Files.isRegularFile(launch.windowMarker())) {
+            return;
+        }
+
+        final String[] times;
+        try {
+            times = Files.readString(launch.windowMarker()).trim().split(" ");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the window marker: %s".formatted(launch.windowMarker()), e);
+        }
+
+        //The start of a process is only known with the precision of the operating system, it can appear before the launch
+        final long jvmStart = Math.max(launch.launchTime(), Long.parseLong(times[0]));
+        final long firstFrame = Long.parseLong(times[1]);
+        record(new Span("%s: JVM launch".formatted(launch.taskPath()), "step", launch.launchTime(), jvmStart, new LinkedHashMap<>()));
+        record(new Span("%s: until the window appeared".formatted(launch.taskPath()), "step", jvmStart, firstFrame, new LinkedHashMap<>()));
+    }
+
+    private static String outcome(final TaskOperationResult result) {
+        if (result instanceof TaskSkippedResult) {
+            return "skipped";
+        }
+
+        if (result instanceof TaskFailureResult) {
+            return "failed";
+        }
+
+        if (result instanceof TaskSuccessResult success) {
+            if (success.isFromCache()) {
+                return "from-cache";
+            }
+
+            return success.isUpToDate() ? "up-to-date" : "executed";
+        }
+
+        return "unknown";
+    }
+
+    private record Launch(String taskPath, long launchTime, Path windowMarker) {
+    }
+
+    private record Span(String name, String category, long startTime, long endTime, Map<String, Object> arguments) {
+    }
+}
@@ -0,0 +1,273 @@
+package com.communi.suggestu.obumbratio.tasks;
+
+import com.communi.suggestu.obumbratio.model.ClientLaunch;
+import com.communi.suggestu.obumbratio.utils.LaunchUtils;
+import com.communi.suggestu.obumbratio.utils.RecorderUtils;
+import groovy.json.JsonOutput;
+import groovy.json.JsonSlurper;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.*;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches a shader run against a fixed world and turns the samples recorded by the game into a report.
+ * <p>
+ * The game is launched with the {@link com.communi.suggestu.obumbratio.recorder.BenchmarkRecorder} agent, which
+ * receives the location of the samples file, and the warmup and measurement durations through the
+ * {@code obumbratio.benchmark.*} system properties. It writes one sample per line, either {@code frame <nanoseconds>}
+ * or {@code chunk <nanoseconds>}, and a final {@code done} line once the measurement finished, after which the client
+ * is stopped.
+ */
+@UntrackedTask(because = "Benchmarks measure the machine they run on and always have to execute")
+public abstract class BenchmarkShaderRun extends DefaultTask {
+
+    private static final List<String> COMPARED_METRICS = List.of("frames.p50Ms", "frames.p99Ms", "chunkBuilds.p99Ms");
+
+    @Inject
+    public BenchmarkShaderRun() {
+        setGroup("obumbratio");
+        setDescription("Benchmarks the frame times of a shader run");
+    }
+
+    @Inject
+    public abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void benchmark() {
+        final ClientLaunch launch = getLaunch();
+        final Path workingDirectory = launch.getWorkingDirectory().get().getAsFile().toPath();
+        final String worldName = getWorld().get().getAsFile().getName();
+        final Path samplesFile = getOutputDirectory().file("samples.txt").get().getAsFile().toPath();
+
+        getFileSystemOperations().sync(spec -> {
+            spec.from(getWorld());
+            spec.into(workingDirectory.resolve("saves").resolve(worldName));
+        });
+
+        final Path agentJar = getOutputDirectory().file("recorder.jar").get().getAsFile().toPath();
+
+        final List<String> jvmArguments = new ArrayList<>();
+        jvmArguments.add("-javaagent:%s".formatted(agentJar.toAbsolutePath()));
+        jvmArguments.add("-Dobumbratio.benchmark.samples=%s".formatted(samplesFile.toAbsolutePath()));
+        jvmArguments.add("-Dobumbratio.benchmark.warmup=%d".formatted(getWarmup().get().toMillis()));
+        jvmArguments.add("-Dobumbratio.benchmark.duration=%d".formatted(getDuration().get().toMillis()));
+
+        final Map<String, String> environment = getSoftwareRendering().get() ? LaunchUtils.SOFTWARE_RENDERING_ENVIRONMENT : Map.of();
+
+        try {
+            Files.deleteIfExists(samplesFile);
+            RecorderUtils.writeAgent(agentJar);
+
+            final Process process = LaunchUtils.start(
+                    launch,
+                    getCommandPrefix().get(),
+                    environment,
+                    jvmArguments,
+                    List.of("--quickPlaySingleplayer", worldName),
+                    getOutputDirectory().file("launch.args").get().getAsFile().toPath(),
+                    getOutputDirectory().file("client.log").get().getAsFile().toPath()
+            );
+
+            awaitSamples(process, samplesFile);
+
+            final Map<String, Object> report = createReport(samplesFile);
+            Files.writeString(getReport().get().getAsFile().toPath(), JsonOutput.prettyPrint(JsonOutput.toJson(report)));
+            getLogger().lifecycle("Benchmark report of {} written to {}", launch.getName().get(), getReport().get().getAsFile());
+
+            if (getBaseline().isPresent()) {
+                compareToBaseline(report);
+            }
+        } catch (IOException e) {
+            throw new GradleException("Failed to benchmark: %s".formatted(launch.getName().get()), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while benchmarking: %s".formatted(launch.getName().get()), e);
+        }
+    }
+
+    private void awaitSamples(final Process process, final Path samplesFile) throws IOException, InterruptedException {
+        final long deadline = System.nanoTime() + getLaunchTimeout().get().toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                if (isComplete(samplesFile)) {
+                    return;
+                }
+
+                if (process.waitFor(1, TimeUnit.SECONDS)) {
+                    if (isComplete(samplesFile)) {
+                        return;
+                    }
+
+                    throw new GradleException("The client exited with code %d before the benchmark completed, see: %s".formatted(
+                            process.exitValue(), getOutputDirectory().file("client.log").get().getAsFile()));
+                }
+            }
+
+            throw new GradleException("The benchmark did not complete within %s".formatted(getLaunchTimeout().get()));
+        } finally {
+            LaunchUtils.stop(process);
+        }
+    }
+
+    //Only the end of the file is read, the samples file grows by a line every frame
+    private static boolean isComplete(final Path samplesFile) throws IOException {
+        if (!Files.exists(samplesFile)) {
+            return false;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(samplesFile.toFile(), "r")) {
+            final int length = (int) Math.min(file.length(), 16);
+            final byte[] tail = new byte[length];
+            file.seek(file.length() - length);
+            file.readFully(tail);
+
+            final String[] lines = new String(tail, StandardCharsets.UTF_8).trim().split("\\R");
+            return lines[lines.length - 1].trim().equals("done");
+        }
+    }
+
+    private Map<String, Object> createReport(final Path samplesFile) throws IOException {
+        final List<Long> frames = new ArrayList<>();
+        final List<Long> chunkBuilds = new ArrayList<>();
+
+        for (final String line : Files.readAllLines(samplesFile)) {
+            final String[] parts = line.trim().split("\\s+");
+            if (parts.length != 2) {
+                continue;
+            }
+
+            switch (parts[0]) {
+                case "frame" -> frames.add(Long.parseLong(parts[1]));
+                case "chunk" -> chunkBuilds.add(Long.parseLong(parts[1]));
+                default -> getLogger().debug("Ignoring unknown benchmark sample: {}", line);
+            }
+        }
+
+        if (frames.isEmpty()) {
+            throw new GradleException("The benchmark did not record any frames");
+        }
+
+        final Map<String, Object> frameStatistics = statistics(frames);
+        final long totalFrameTime = frames.stream().mapToLong(Long::longValue).sum();
+        frameStatistics.put("averageFps", frames.size() / (totalFrameTime / 1_000_000_000d));
+
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("run", getLaunch().getName().get());
+        report.put("softwareRendering", getSoftwareRendering().get());
+        report.put("durationMs", getDuration().get().toMillis());
+        report.put("frames", frameStatistics);
+        report.put("chunkBuilds", statistics(chunkBuilds));
+        return report;
+    }
+
+    private static Map<String, Object> statistics(final List<Long> samples) {
+        final long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("count", sorted.length);
+        if (sorted.length == 0) {
+            return statistics;
+        }
+
+        statistics.put("p50Ms", percentile(sorted, 50));
+        statistics.put("p90Ms", percentile(sorted, 90));
+        statistics.put("p99Ms", percentile(sorted, 99));
+        statistics.put("p999Ms", percentile(sorted, 99.9));
+        statistics.put("maxMs", sorted[sorted.length - 1] / 1_000_000d);
+        return statistics;
+    }
+
+    private static double percentile(final long[] sorted, final double percentile) {
+        final int rank = (int) Math.ceil(percentile / 100d * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)] / 1_000_000d;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void compareToBaseline(final Map<String, Object> report) {
+        final Map<String, Object> baseline = (Map<String, Object>) new JsonSlurper().parse(getBaseline().get().getAsFile());
+        final double allowed = 1 + getMaxRegression().get();
+
+        final List<String> regressions = new ArrayList<>();
+        for (final String metric : COMPARED_METRICS) {
+            final Number current = metric(report, metric);
+            final Number expected = metric(baseline, metric);
+            if (current == null || expected == null) {
+                continue;
+            }
+
+            if (current.doubleValue() > expected.doubleValue() * allowed) {
+                regressions.add("%s: %.3f ms, baseline %.3f ms".formatted(metric, current.doubleValue(), expected.doubleValue()));
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            throw new GradleException("The benchmark of %s regressed against %s:%n  %s".formatted(
+                    getLaunch().getName().get(), getBaseline().get().getAsFile(), String.join(System.lineSeparator() + "  ", regressions)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Number metric(final Map<String, Object> report, final String metric) {
+        final String[] path = metric.split("\\.");
+        final Object section = report.get(path[0]);
+        if (!(section instanceof Map)) {
+            return null;
+        }
+
+        return ((Map<String, Object>) section).get(path[1]) instanceof Number number ? number : null;
+    }
+
+    @Nested
+    public abstract ClientLaunch getLaunch();
+
+    @InputDirectory
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getWorld();
+
+    @Input
+    public abstract Property<Duration> getWarmup();
+
+    @Input
+    public abstract Property<Duration> getDuration();
+
+    @Internal
+    public abstract Property<Duration> getLaunchTimeout();
+
+    @Input
+    public abstract Property<Boolean> getSoftwareRendering();
+
+    @Input
+    public abstract ListProperty<String> getCommandPrefix();
+
+    @Optional
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getBaseline();
+
+    @Input
+    public abstract Property<Double> getMaxRegression();
+
+    @Internal
+    public abstract DirectoryProperty getOutputDirectory();
+
+    @OutputFile
+    public abstract RegularFileProperty getReport();
+}
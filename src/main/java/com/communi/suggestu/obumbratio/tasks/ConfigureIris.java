@@ -0,0 +1,64 @@
+package com.communi.suggestu.obumbratio.tasks;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.*;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Selects the shaderpack Iris loads when none is selected yet, keeping every other setting in the Iris configuration
+ * file untouched.
+ */
+@UntrackedTask(because = "The Iris configuration file is also written by the game")
+public abstract class ConfigureIris extends DefaultTask {
+
+    @Inject
+    public ConfigureIris() {
+        setGroup("obumbratio");
+        setDescription("Selects the default shaderpack in the Iris configuration, unless a shaderpack is already selected");
+    }
+
+    @TaskAction
+    public void configure() {
+        final Path configFile = getConfigFile().get().getAsFile().toPath();
+        final Properties properties = new Properties();
+
+        try {
+            if (Files.exists(configFile)) {
+                try (Reader reader = Files.newBufferedReader(configFile)) {
+                    properties.load(reader);
+                }
+            }
+
+            //Once a pack is selected, in game or by a previous build, it is the choice of the developer
+            if (properties.getProperty("shaderPack") != null) {
+                return;
+            }
+
+            properties.setProperty("shaderPack", getShaderpack().get());
+            properties.setProperty("enableShaders", "true");
+
+            Files.createDirectories(configFile.getParent());
+            try (Writer writer = Files.newBufferedWriter(configFile)) {
+                properties.store(writer, "This file stores configuration options for Iris, such as the currently active shaderpack");
+            }
+        } catch (IOException e) {
+            throw new GradleException("Failed to configure Iris in: %s".formatted(configFile), e);
+        }
+    }
+
+    @Internal
+    public abstract RegularFileProperty getConfigFile();
+
+    @Input
+    public abstract Property<String> getShaderpack();
+}
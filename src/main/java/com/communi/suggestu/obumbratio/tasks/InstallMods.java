@@ -1,12 +1,26 @@
 package com.communi.suggestu.obumbratio.tasks;
 
+import com.communi.suggestu.obumbratio.services.BuildTimelineService;
+import com.communi.suggestu.obumbratio.utils.InstallUtils;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.*;
+import org.gradle.work.ChangeType;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
 
 import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 public abstract class InstallMods extends DefaultTask {
 
@@ -20,19 +34,80 @@ public abstract class InstallMods extends DefaultTask {
     public abstract FileSystemOperations getFileSystemOperations();
 
     @TaskAction
-    public void install() {
-        getModFiles().getFiles().forEach(file -> {
-            getFileSystemOperations().copy(spec -> {
-                spec.from(file);
-                spec.into(getModsDirectory());
-            });
+    public void install(final InputChanges changes) {
+        final Path modsDirectory = getModsDirectory().get().getAsFile().toPath();
+
+        final Set<String> installed = getModFiles().getFiles().stream().map(File::getName).collect(Collectors.toCollection(TreeSet::new));
+
+        if (!changes.isIncremental()) {
+            //Without a history of the inputs, everything a previous build installed and which is no longer an input is removed
+            removeStale(modsDirectory, installed);
+            getModFiles().getFiles().forEach(file -> install(file, modsDirectory.resolve(file.getName())));
+            recordInstalled(modsDirectory, installed);
+            return;
+        }
+
+        //Only touching the changed mods keeps a running game, and continuous builds, from seeing unrelated rewrites
+        changes.getFileChanges(getModFiles()).forEach(change -> {
+            final Path target = modsDirectory.resolve(change.getFile().getName());
+            if (change.getChangeType() == ChangeType.REMOVED) {
+                getFileSystemOperations().delete(spec -> spec.delete(target));
+            } else {
+                install(change.getFile(), target);
+            }
         });
+
+        recordInstalled(modsDirectory, installed);
+    }
+
+    private void removeStale(final Path directory, final Set<String> installed) {
+        try {
+            for (final String name : InstallUtils.readInstalled(directory)) {
+                if (!installed.contains(name)) {
+                    getLogger().info("Removing {}, it is no longer installed", name);
+                    getFileSystemOperations().delete(spec -> spec.delete(directory.resolve(name)));
+                }
+            }
+        } catch (IOException e) {
+            throw new GradleException("Failed to remove the stale mods from: %s".formatted(directory), e);
+        }
+    }
+
+    private void recordInstalled(final Path directory, final Set<String> installed) {
+        try {
+            InstallUtils.writeInstalled(directory, installed);
+        } catch (IOException e) {
+            throw new GradleException("Failed to record the installed mods in: %s".formatted(directory), e);
+        }
+    }
+
+    private void install(final File file, final Path target) {
+        final long startTime = System.currentTimeMillis();
+        try {
+            final boolean installed = InstallUtils.install(file.toPath(), target);
+
+            if (getTimeline().isPresent()) {
+                getTimeline().get().recordStep(
+                        "%s: %s".formatted(getPath(), file.getName()),
+                        startTime,
+                        System.currentTimeMillis(),
+                        Map.of("bytes", file.length(), "installed", installed)
+                );
+            }
+        } catch (IOException e) {
+            throw new GradleException("Failed to install mod: %s".formatted(file), e);
+        }
     }
 
     @OutputDirectory
     public abstract DirectoryProperty getModsDirectory();
 
+    @Incremental
     @InputFiles
     @PathSensitive(PathSensitivity.NAME_ONLY)
     public abstract ConfigurableFileCollection getModFiles();
+
+    @Internal
+    @Optional
+    public abstract Property<BuildTimelineService> getTimeline();
 }
@@ -0,0 +1,166 @@
+package com.communi.suggestu.obumbratio.tasks;
+
+import com.communi.suggestu.obumbratio.services.BuildTimelineService;
+import com.communi.suggestu.obumbratio.utils.InstallUtils;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.*;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Installs the shaderpacks into the shaderpacks directory of a run.
+ * <p>
+ * The task is not cacheable, the shaderpacks directory also holds the settings Iris writes for every pack and packs
+ * added by hand, which restoring the directory from the build cache would delete.
+ */
+public abstract class InstallShaderpacks extends DefaultTask {
+
+    @Inject
+    public InstallShaderpacks() {
+        setGroup("obumbratio");
+        setDescription("Installs shaderpacks for the project");
+
+        getLink().convention(false);
+    }
+
+    @Inject
+    public abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void install(final InputChanges changes) {
+        final Path shaderpacksDirectory = getShaderpacksDirectory().get().getAsFile().toPath();
+
+        final Set<String> installed = getShaderpackFiles().getFiles().stream().map(File::getName).collect(Collectors.toCollection(TreeSet::new));
+
+        final Set<File> shaderpacks = getShaderpackFiles().getFiles();
+        final Set<File> changed = new LinkedHashSet<>();
+        if (!changes.isIncremental()) {
+            changed.addAll(shaderpacks);
+        } else {
+            //Changes to a shaderpack directory are reported per file inside of it, so every change is mapped back to the
+            //shaderpack it belongs to, and that shaderpack is reinstalled as a whole
+            changes.getFileChanges(getShaderpackFiles()).forEach(change -> {
+                final File shaderpack = findShaderpack(shaderpacks, change.getFile());
+                if (shaderpack != null) {
+                    changed.add(shaderpack);
+                }
+            });
+        }
+
+        //Everything a previous build installed and which is no longer an input is removed through the record, this
+        //also covers removed shaderpacks in incremental builds, which are not part of the current files anymore
+        removeStale(shaderpacksDirectory, installed);
+        changed.forEach(file -> install(file, shaderpacksDirectory.resolve(file.getName())));
+        recordInstalled(shaderpacksDirectory, installed);
+    }
+
+    private static File findShaderpack(final Set<File> shaderpacks, final File changed) {
+        final Path path = changed.toPath().toAbsolutePath();
+        for (final File shaderpack : shaderpacks) {
+            if (path.startsWith(shaderpack.toPath().toAbsolutePath())) {
+                return shaderpack;
+            }
+        }
+
+        return null;
+    }
+
+    private void removeStale(final Path directory, final Set<String> installed) {
+        try {
+            for (final String name : InstallUtils.readInstalled(directory)) {
+                if (!installed.contains(name)) {
+                    getLogger().info("Removing {}, it is no longer installed", name);
+                    getFileSystemOperations().delete(spec -> spec.delete(directory.resolve(name)));
+                }
+            }
+        } catch (IOException e) {
+            throw new GradleException("Failed to remove the stale shaderpacks from: %s".formatted(directory), e);
+        }
+    }
+
+    private void recordInstalled(final Path directory, final Set<String> installed) {
+        try {
+            InstallUtils.writeInstalled(directory, installed);
+        } catch (IOException e) {
+            throw new GradleException("Failed to record the installed shaderpacks in: %s".formatted(directory), e);
+        }
+    }
+
+    private void install(final File file, final Path target) {
+        final long startTime = System.currentTimeMillis();
+        try {
+            final boolean installed;
+            if (getLink().get()) {
+                installed = InstallUtils.link(file.toPath().toAbsolutePath(), target);
+            } else if (file.isDirectory()) {
+                installed = getFileSystemOperations().sync(spec -> {
+                    spec.from(file);
+                    spec.into(target);
+                }).getDidWork();
+            } else {
+                installed = InstallUtils.install(file.toPath(), target);
+            }
+
+            if (!installed) {
+                getLogger().info("Shaderpack {} is already installed", file.getName());
+            }
+
+            if (getTimeline().isPresent()) {
+                getTimeline().get().recordStep(
+                        "%s: %s".formatted(getPath(), file.getName()),
+                        startTime,
+                        System.currentTimeMillis(),
+                        Map.of("bytes", size(file), "installed", installed)
+                );
+            }
+        } catch (IOException e) {
+            throw new GradleException("Failed to install shaderpack: %s".formatted(file), e);
+        }
+    }
+
+    private static long size(final File file) throws IOException {
+        if (!file.isDirectory()) {
+            return file.length();
+        }
+
+        try (Stream<Path> files = Files.walk(file.toPath())) {
+            long size = 0;
+            for (final Path path : files.filter(Files::isRegularFile).toList()) {
+                size += Files.size(path);
+            }
+            return size;
+        }
+    }
+
+    @OutputDirectory
+    public abstract DirectoryProperty getShaderpacksDirectory();
+
+    @Incremental
+    @InputFiles
+    @PathSensitive(PathSensitivity.NAME_ONLY)
+    public abstract ConfigurableFileCollection getShaderpackFiles();
+
+    @Input
+    public abstract Property<Boolean> getLink();
+
+    @Internal
+    @Optional
+    public abstract Property<BuildTimelineService> getTimeline();
+}
@@ -0,0 +1,169 @@
+package com.communi.suggestu.obumbratio.tasks;
+
+import com.communi.suggestu.obumbratio.model.ClientLaunch;
+import com.communi.suggestu.obumbratio.utils.LaunchUtils;
+import org.gradle.api.Action;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.*;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches several clients side by side, with at most {@link #getMaxParallelClients()} of them running at the same time.
+ * <p>
+ * Clients which share a working directory would write the same options, logs and saves, so they are launched one after
+ * the other instead of side by side.
+ * <p>
+ * Every client runs for {@link #getDuration()} and is stopped afterwards. A client fails when it exits with a non zero
+ * exit code before that. The output of every client is written to {@code <run>/client.log} in the output directory.
+ */
+@UntrackedTask(because = "Launching clients has no outputs and always has to execute")
+public abstract class LaunchClients extends DefaultTask {
+
+    private final List<ClientLaunch> launches = new ArrayList<>();
+
+    @Inject
+    public LaunchClients() {
+        setGroup("obumbratio");
+        setDescription("Launches the client runs side by side");
+    }
+
+    @Inject
+    public abstract ObjectFactory getObjects();
+
+    public void launch(final Action<ClientLaunch> configure) {
+        final ClientLaunch launch = getObjects().newInstance(ClientLaunch.class);
+        configure.execute(launch);
+        launches.add(launch);
+    }
+
+    @TaskAction
+    public void launchClients() {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, getMaxParallelClients().get()));
+        try {
+            final Map<File, List<ClientLaunch>> launchesByWorkingDirectory = new LinkedHashMap<>();
+            for (final ClientLaunch launch : launches) {
+                launchesByWorkingDirectory.computeIfAbsent(
+                        launch.getWorkingDirectory().get().getAsFile().getAbsoluteFile(),
+                        workingDirectory -> new ArrayList<>()
+                ).add(launch);
+            }
+
+            final List<Future<List<String>>> results = new ArrayList<>();
+            for (final List<ClientLaunch> group : launchesByWorkingDirectory.values()) {
+                results.add(executor.submit(() -> launchAll(group)));
+            }
+
+            final List<String> failures = new ArrayList<>();
+            for (final Future<List<String>> result : results) {
+                try {
+                    failures.addAll(result.get());
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause().getMessage());
+                }
+            }
+
+            if (!failures.isEmpty()) {
+                throw new GradleException("%d of %d clients failed:%n  %s".formatted(
+                        failures.size(), launches.size(), String.join(System.lineSeparator() + "  ", failures)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while launching the clients", e);
+        } finally {
+            //Interrupts the clients which are still running, which stops their processes
+            executor.shutdownNow();
+        }
+    }
+
+    private List<String> launchAll(final List<ClientLaunch> group) throws InterruptedException {
+        final List<String> failures = new ArrayList<>();
+        for (final ClientLaunch launch : group) {
+            try {
+                final String failure = launch(launch);
+                if (failure != null) {
+                    failures.add(failure);
+                }
+            } catch (IOException e) {
+                //Keeps launching the rest of the group, the same as a failure of a client in another working directory
+                failures.add(e.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    private String launch(final ClientLaunch launch) throws IOException, InterruptedException {
+        final String name = launch.getName().get();
+        final Path runDirectory = getOutputDirectory().dir(name).get().getAsFile().toPath();
+        final Path logFile = runDirectory.resolve("client.log");
+        final Map<String, String> environment = getSoftwareRendering().get() ? LaunchUtils.SOFTWARE_RENDERING_ENVIRONMENT : Map.of();
+
+        getLogger().lifecycle("Launching {}, logging to {}", name, logFile);
+        final Process process = LaunchUtils.start(
+                launch,
+                getCommandPrefix().get(),
+                environment,
+                List.of("-Xmx%s".formatted(getMaxHeapSize().get())),
+                List.of(),
+                runDirectory.resolve("launch.args"),
+                logFile
+        );
+
+        try {
+            if (!process.waitFor(getDuration().get().toMillis(), TimeUnit.MILLISECONDS)) {
+                getLogger().lifecycle("{} ran for {}, stopping it", name, getDuration().get());
+                return null;
+            }
+
+            if (process.exitValue() != 0) {
+                return "%s exited with code %d, see: %s".formatted(name, process.exitValue(), logFile);
+            }
+
+            return null;
+        } finally {
+            LaunchUtils.stop(process);
+        }
+    }
+
+    @Nested
+    public List<ClientLaunch> getLaunches() {
+        return launches;
+    }
+
+    @Internal
+    public abstract Property<Integer> getMaxParallelClients();
+
+    //The maximum heap size of every client, in the format of -Xmx
+    @Input
+    public abstract Property<String> getMaxHeapSize();
+
+    @Input
+    public abstract Property<Duration> getDuration();
+
+    @Input
+    public abstract Property<Boolean> getSoftwareRendering();
+
+    @Input
+    public abstract ListProperty<String> getCommandPrefix();
+
+    @Internal
+    public abstract DirectoryProperty getOutputDirectory();
+}
@@ -0,0 +1,99 @@
+package com.communi.suggestu.obumbratio.tasks;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.*;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Replaces the shared entries of a run directory with links into the shared directory.
+ * <p>
+ * An entry which only exists in the run directory is moved into the shared directory first, so the first run
+ * seeds the shared content. Entries which are missing everywhere are created as directories when their name has
+ * no extension; files (like {@code options.txt}) are linked once a run has created them. An entry which exists in
+ * the run directory and in the shared directory is left alone, as there is no way to merge them automatically.
+ */
+@UntrackedTask(because = "Links are managed in place inside the run directory")
+public abstract class LinkSharedContent extends DefaultTask {
+
+    @Inject
+    public LinkSharedContent() {
+        setGroup("obumbratio");
+        setDescription("Links the shared content into the run directory");
+    }
+
+    @TaskAction
+    public void link() {
+        final Path runDirectory = getRunDirectory().get().getAsFile().toPath().toAbsolutePath();
+        final Path sharedDirectory = getSharedDirectory().get().getAsFile().toPath().toAbsolutePath();
+
+        if (runDirectory.equals(sharedDirectory)) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(runDirectory);
+            Files.createDirectories(sharedDirectory);
+
+            for (final String entry : getSharedEntries().get()) {
+                link(runDirectory.resolve(entry), sharedDirectory.resolve(entry));
+            }
+        } catch (IOException e) {
+            throw new GradleException("Failed to link the shared content into: %s".formatted(runDirectory), e);
+        }
+    }
+
+    private void link(final Path local, final Path shared) throws IOException {
+        boolean seeded = false;
+        if (Files.isSymbolicLink(local)) {
+            if (Objects.equals(Files.readSymbolicLink(local), shared)) {
+                return;
+            }
+
+            Files.delete(local);
+        } else if (Files.exists(local)) {
+            if (Files.exists(shared)) {
+                getLogger().warn("Not linking {}, it already exists in the run directory and in the shared directory {}. Merge its content into the shared directory and delete it to share it.", local, shared);
+                return;
+            }
+
+            Files.createDirectories(shared.getParent());
+            Files.move(local, shared);
+            seeded = true;
+        }
+
+        if (!Files.exists(shared)) {
+            if (shared.getFileName().toString().contains(".")) {
+                return;
+            }
+
+            Files.createDirectories(shared);
+        }
+
+        try {
+            Files.createDirectories(local.getParent());
+            Files.createSymbolicLink(local, shared);
+        } catch (IOException | UnsupportedOperationException e) {
+            getLogger().warn("Could not link {} to {}, the run will use its own copy: {}", local, shared, e.getMessage());
+            if (seeded) {
+                Files.move(shared, local);
+            }
+        }
+    }
+
+    @Internal
+    public abstract DirectoryProperty getRunDirectory();
+
+    @Internal
+    public abstract DirectoryProperty getSharedDirectory();
+
+    @Input
+    public abstract SetProperty<String> getSharedEntries();
+}
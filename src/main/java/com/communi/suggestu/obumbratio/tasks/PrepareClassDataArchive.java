@@ -0,0 +1,89 @@
+package com.communi.suggestu.obumbratio.tasks;
+
+import com.communi.suggestu.obumbratio.utils.InstallUtils;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.*;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * Invalidates the class data sharing archive of a run when the content of its runtime classpath changed.
+ * <p>
+ * The run creates the archive itself on its next launch ({@code -XX:+AutoCreateSharedArchive}), which doubles as the
+ * training launch. The archive only holds classes the built-in class loaders of the JVM load from the classpath,
+ * classes loaded by the mod loader are never archived. The JVM validates the classpath by the size and modification
+ * time of its entries only, so the archive is additionally deleted here whenever the content of an entry changes.
+ */
+public abstract class PrepareClassDataArchive extends DefaultTask {
+
+    @Inject
+    public PrepareClassDataArchive() {
+        setGroup("obumbratio");
+        setDescription("Invalidates the class data sharing archive of a run when its classpath changes");
+    }
+
+    @TaskAction
+    public void prepare() {
+        final Path archive = getArchiveFile().get().getAsFile().toPath();
+        final Path classpathHash = getClasspathHashFile().get().getAsFile().toPath();
+
+        try {
+            final String hash = hash();
+            if (Files.exists(classpathHash) && Files.readString(classpathHash).equals(hash)) {
+                return;
+            }
+
+            Files.deleteIfExists(archive);
+            Files.createDirectories(classpathHash.getParent());
+            Files.writeString(classpathHash, hash);
+            getLogger().info("Runtime classpath changed, the class data sharing archive {} will be recreated on the next launch", archive);
+        } catch (IOException e) {
+            throw new GradleException("Failed to invalidate the class data sharing archive: %s".formatted(archive), e);
+        }
+    }
+
+    private String hash() throws IOException {
+        final StringBuilder checksums = new StringBuilder();
+        for (final File file : getRuntimeClasspath().getFiles()) {
+            if (file.isDirectory()) {
+                try (Stream<Path> files = Files.walk(file.toPath())) {
+                    for (final Path entry : files.filter(Files::isRegularFile).sorted().toList()) {
+                        checksums.append(file.toPath().relativize(entry)).append(':').append(InstallUtils.checksum(entry)).append('\n');
+                    }
+                }
+            } else if (file.isFile()) {
+                checksums.append(file.getAbsolutePath()).append(':').append(InstallUtils.checksum(file.toPath())).append('\n');
+            }
+        }
+
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        return HexFormat.of().formatHex(digest.digest(checksums.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Classpath
+    public abstract ConfigurableFileCollection getRuntimeClasspath();
+
+    @Internal
+    public abstract RegularFileProperty getArchiveFile();
+
+    @OutputFile
+    public abstract RegularFileProperty getClasspathHashFile();
+}
@@ -0,0 +1,163 @@
+package com.communi.suggestu.obumbratio.tasks;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.*;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Summarizes the CPU and allocation hotspots of a flight recording.
+ * <p>
+ * Every sample is attributed to the innermost frame which belongs to one of the configured packages, or to a class of
+ * the shader source set. Samples without such a frame are left out, so the report only shows code of the project.
+ */
+@CacheableTask
+public abstract class SummarizeProfile extends DefaultTask {
+
+    @Inject
+    public SummarizeProfile() {
+        setGroup("obumbratio");
+        setDescription("Summarizes the hotspots of a profile run");
+    }
+
+    @TaskAction
+    public void summarize() {
+        final Set<String> classes = collectClasses();
+        final Set<String> packages = getPackages().get();
+
+        final Map<String, Long> cpu = new HashMap<>();
+        final Map<String, Long> allocations = new HashMap<>();
+        long cpuSamples = 0;
+
+        try {
+            for (final File recording : getRecording().getFiles()) {
+                for (final RecordedEvent event : RecordingFile.readAllEvents(recording.toPath())) {
+                    final String type = event.getEventType().getName();
+                    if (type.equals("jdk.ExecutionSample")) {
+                        cpuSamples++;
+                        final String hotspot = findHotspot(event.getStackTrace(), classes, packages);
+                        if (hotspot != null) {
+                            cpu.merge(hotspot, 1L, Long::sum);
+                        }
+                    } else if (type.equals("jdk.ObjectAllocationSample")) {
+                        final String hotspot = findHotspot(event.getStackTrace(), classes, packages);
+                        if (hotspot != null) {
+                            allocations.merge(hotspot, event.getLong("weight"), Long::sum);
+                        }
+                    }
+                }
+            }
+
+            final List<String> lines = new ArrayList<>();
+            lines.add("# Hotspots of %s".formatted(getRunName().get()));
+            lines.add("");
+            lines.add("## CPU");
+            lines.add("");
+            lines.add("| Method | Samples | Share of all samples |");
+            lines.add("|--------|---------|----------------------|");
+            final long totalSamples = Math.max(1, cpuSamples);
+            top(cpu).forEach(entry -> lines.add("| `%s` | %d | %.2f%% |".formatted(entry.getKey(), entry.getValue(), entry.getValue() * 100d / totalSamples)));
+            lines.add("");
+            lines.add("## Allocations");
+            lines.add("");
+            lines.add("| Method | Allocated (estimated) |");
+            lines.add("|--------|-----------------------|");
+            top(allocations).forEach(entry -> lines.add("| `%s` | %.1f MiB |".formatted(entry.getKey(), entry.getValue() / (1024d * 1024d))));
+
+            final Path summary = getSummaryFile().get().getAsFile().toPath();
+            Files.createDirectories(summary.getParent());
+            Files.write(summary, lines);
+            getLogger().lifecycle("Profile summary of {} written to {}", getRunName().get(), summary);
+        } catch (IOException e) {
+            throw new GradleException("Failed to summarize the profile of: %s".formatted(getRunName().get()), e);
+        }
+    }
+
+    private Stream<Map.Entry<String, Long>> top(final Map<String, Long> hotspots) {
+        return hotspots.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(getLimit().get());
+    }
+
+    private static String findHotspot(final RecordedStackTrace stackTrace, final Set<String> classes, final Set<String> packages) {
+        if (stackTrace == null) {
+            return null;
+        }
+
+        for (final RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+
+            final String className = frame.getMethod().getType().getName();
+            if (classes.contains(className) || packages.stream().anyMatch(className::startsWith)) {
+                return "%s.%s".formatted(className, frame.getMethod().getName());
+            }
+        }
+
+        return null;
+    }
+
+    private Set<String> collectClasses() {
+        final Set<String> classes = new HashSet<>();
+        for (final File directory : getSourceSetClasses().getFiles()) {
+            if (!directory.isDirectory()) {
+                continue;
+            }
+
+            final Path root = directory.toPath();
+            try (Stream<Path> files = Files.walk(root)) {
+                files.map(root::relativize)
+                        .map(Path::toString)
+                        .filter(file -> file.endsWith(".class"))
+                        .map(file -> file.substring(0, file.length() - ".class".length()).replace(File.separatorChar, '.'))
+                        .forEach(classes::add);
+            } catch (IOException e) {
+                throw new GradleException("Failed to read the classes in: %s".formatted(directory), e);
+            }
+        }
+
+        return classes;
+    }
+
+    @Input
+    public abstract Property<String> getRunName();
+
+    @SkipWhenEmpty
+    @InputFiles
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract ConfigurableFileCollection getRecording();
+
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getSourceSetClasses();
+
+    @Input
+    public abstract SetProperty<String> getPackages();
+
+    @Input
+    public abstract Property<Integer> getLimit();
+
+    @OutputFile
+    public abstract RegularFileProperty getSummaryFile();
+}
@@ -0,0 +1,43 @@
+package com.communi.suggestu.obumbratio.tasks;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public abstract class WriteProfilingSettings extends DefaultTask {
+
+    private static final String SETTINGS_RESOURCE = "/com/communi/suggestu/obumbratio/profiling.jfc";
+
+    @Inject
+    public WriteProfilingSettings() {
+        setGroup("obumbratio");
+        setDescription("Writes the flight recorder settings used by the profile runs");
+    }
+
+    @TaskAction
+    public void write() {
+        final Path settingsFile = getSettingsFile().get().getAsFile().toPath();
+        try (InputStream settings = WriteProfilingSettings.class.getResourceAsStream(SETTINGS_RESOURCE)) {
+            if (settings == null) {
+                throw new IllegalStateException("Missing flight recorder settings: %s".formatted(SETTINGS_RESOURCE));
+            }
+
+            Files.createDirectories(settingsFile.getParent());
+            Files.copy(settings, settingsFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new GradleException("Failed to write the flight recorder settings to: %s".formatted(settingsFile), e);
+        }
+    }
+
+    @OutputFile
+    public abstract RegularFileProperty getSettingsFile();
+}
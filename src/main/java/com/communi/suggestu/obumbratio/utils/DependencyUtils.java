@@ -0,0 +1,42 @@
+package com.communi.suggestu.obumbratio.utils;
+
+import com.communi.suggestu.obumbratio.extensions.ShadersExtension;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.provider.Provider;
+
+public final class DependencyUtils {
+
+    private DependencyUtils() {
+        throw new IllegalStateException("Tried to instantiate: 'DependencyUtils', but this is a utility class.");
+    }
+
+    /**
+     * Creates the dependency on a mod, which is replaced by a local build of the mod when one is configured.
+     *
+     * @param project    The project to create the dependency in.
+     * @param localBuild The local build which replaces the published mod.
+     * @param notation   The notation of the published mod.
+     * @return The provider of the dependency.
+     */
+    public static Provider<Dependency> create(final Project project, final ShadersExtension.LocalBuild localBuild, final Provider<String> notation) {
+        return project.provider(() -> createLocal(project, localBuild))
+                .orElse(notation.map(project.getDependencies()::create));
+    }
+
+    private static Dependency createLocal(final Project project, final ShadersExtension.LocalBuild localBuild) {
+        if (localBuild.getModule().isPresent()) {
+            //Published mods are consumed without their dependencies, the local build should behave the same
+            final ModuleDependency dependency = (ModuleDependency) project.getDependencies().create(localBuild.getModule().get());
+            dependency.setTransitive(false);
+            return dependency;
+        }
+
+        if (!localBuild.getJars().getFrom().isEmpty()) {
+            return project.getDependencies().create(localBuild.getJars());
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.communi.suggestu.obumbratio.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class InstallUtils {
+
+    //Mod loaders and Iris ignore files without a jar or zip extension, so the record can live next to the installed files
+    private static final String INSTALLED_RECORD = ".obumbratio-installed";
+
+    private InstallUtils() {
+        throw new IllegalStateException("Tried to instantiate: 'InstallUtils', but this is a utility class.");
+    }
+
+    public static String checksum(final Path file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        try (InputStream stream = new DigestInputStream(Files.newInputStream(file), digest)) {
+            stream.transferTo(OutputStream.nullOutputStream());
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Copies the source into the target, unless the target already has the same checksum.
+     * <p>
+     * The copy is written next to the target, verified, and then moved into place atomically, so readers of the
+     * target never observe a partially written file.
+     *
+     * @return {@code true} when the target was (re)written.
+     */
+    public static boolean install(final Path source, final Path target) throws IOException {
+        final String expected = checksum(source);
+        if (Files.isRegularFile(target) && !Files.isSymbolicLink(target) && expected.equals(checksum(target))) {
+            return false;
+        }
+
+        Files.createDirectories(target.getParent());
+        final Path temporary = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+        try {
+            Files.copy(source, temporary, StandardCopyOption.REPLACE_EXISTING);
+
+            final String actual = checksum(temporary);
+            if (!expected.equals(actual)) {
+                throw new IOException("Checksum mismatch while installing %s, expected %s but got %s".formatted(source, expected, actual));
+            }
+
+            move(temporary, target);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+
+        return true;
+    }
+
+    /**
+     * Replaces the target with a symbolic link to the source, unless it already is one.
+     *
+     * @return {@code true} when the link was (re)created.
+     */
+    public static boolean link(final Path source, final Path target) throws IOException {
+        if (Files.isSymbolicLink(target) && Files.readSymbolicLink(target).equals(source)) {
+            return false;
+        }
+
+        Files.createDirectories(target.getParent());
+        final Path temporary = target.resolveSibling("." + target.getFileName() + ".link");
+        Files.deleteIfExists(temporary);
+        Files.createSymbolicLink(temporary, source);
+        move(temporary, target);
+        return true;
+    }
+
+    /**
+     * Reads the names of the files which were installed into the directory by a previous build.
+     *
+     * @param directory The directory the files are installed into.
+     * @return The names of the installed files, empty when nothing was recorded yet.
+     */
+    public static Set<String> readInstalled(final Path directory) throws IOException {
+        final Path record = directory.resolve(INSTALLED_RECORD);
+        if (!Files.isRegularFile(record)) {
+            return Set.of();
+        }
+
+        return new TreeSet<>(Files.readAllLines(record));
+    }
+
+    /**
+     * Records the names of the files which are installed into the directory, so they can be removed once they are no
+     * longer installed, even when the history of the installing task is lost.
+     *
+     * @param directory The directory the files are installed into.
+     * @param names     The names of the installed files.
+     */
+    public static void writeInstalled(final Path directory, final Set<String> names) throws IOException {
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(INSTALLED_RECORD), new TreeSet<>(names));
+    }
+
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
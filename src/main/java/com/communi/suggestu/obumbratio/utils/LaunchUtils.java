@@ -0,0 +1,110 @@
+package com.communi.suggestu.obumbratio.utils;
+
+import com.communi.suggestu.obumbratio.model.ClientLaunch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+public final class LaunchUtils {
+
+    public static final Map<String, String> SOFTWARE_RENDERING_ENVIRONMENT = Map.of(
+            "LIBGL_ALWAYS_SOFTWARE", "1",
+            "GALLIUM_DRIVER", "llvmpipe",
+            "MESA_GL_VERSION_OVERRIDE", "4.6",
+            "MESA_GLSL_VERSION_OVERRIDE", "460"
+    );
+
+    private LaunchUtils() {
+        throw new IllegalStateException("Tried to instantiate: 'LaunchUtils', but this is a utility class.");
+    }
+
+    /**
+     * Starts the client described by the launch in its working directory.
+     * <p>
+     * The JVM arguments, classpath, main class and program arguments are passed through a java argument file,
+     * so the command line stays short on every platform.
+     *
+     * @param launch         The client to start.
+     * @param commandPrefix  A command which wraps the java process, like {@code xvfb-run -a}.
+     * @param environment    Additional environment variables.
+     * @param jvmArguments   Additional JVM arguments, appended after those of the launch.
+     * @param arguments      Additional program arguments, appended after those of the launch.
+     * @param argumentFile   The file to write the java argument file to.
+     * @param logFile        The file which receives the standard output and error of the client.
+     * @return The started process.
+     */
+    public static Process start(
+            final ClientLaunch launch,
+            final List<String> commandPrefix,
+            final Map<String, String> environment,
+            final List<String> jvmArguments,
+            final List<String> arguments,
+            final Path argumentFile,
+            final Path logFile
+    ) throws IOException {
+        final List<String> javaArguments = new ArrayList<>(launch.getJvmArguments().get());
+        javaArguments.addAll(jvmArguments);
+        javaArguments.add("-cp");
+        javaArguments.add(launch.getClasspath().getFiles().stream().map(File::getAbsolutePath).collect(Collectors.joining(File.pathSeparator)));
+        javaArguments.add(launch.getMainClass().get());
+        javaArguments.addAll(launch.getArguments().get());
+        javaArguments.addAll(arguments);
+
+        Files.createDirectories(argumentFile.getParent());
+        Files.write(argumentFile, javaArguments.stream().map(LaunchUtils::quote).toList());
+
+        final List<String> command = new ArrayList<>(commandPrefix);
+        command.add(launch.getJavaExecutable().get());
+        command.add("@" + argumentFile.toAbsolutePath());
+
+        final File workingDirectory = launch.getWorkingDirectory().get().getAsFile();
+        Files.createDirectories(workingDirectory.toPath());
+        Files.createDirectories(logFile.getParent());
+
+        final ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(workingDirectory)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile());
+        builder.environment().putAll(launch.getEnvironment().get());
+        builder.environment().putAll(environment);
+
+        return builder.start();
+    }
+
+    /**
+     * Stops the process and every process it started.
+     * <p>
+     * A command prefix like {@code xvfb-run} starts the client as its own child, which does not receive the signal sent
+     * to the prefix, so the whole process tree is stopped. Processes which did not exit after 30 seconds are killed.
+     *
+     * @param process The process to stop.
+     */
+    public static void stop(final Process process) throws InterruptedException {
+        //The descendants are collected first, once the prefix exited its children are no longer part of its tree
+        final List<ProcessHandle> processes = new ArrayList<>(process.descendants().toList());
+        processes.add(process.toHandle());
+        processes.forEach(ProcessHandle::destroy);
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (final ProcessHandle handle : processes) {
+            try {
+                handle.onExit().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                handle.destroyForcibly();
+            }
+        }
+    }
+
+    private static String quote(final String argument) {
+        return "\"" + argument.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
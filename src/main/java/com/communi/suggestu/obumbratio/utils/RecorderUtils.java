@@ -0,0 +1,58 @@
+package com.communi.suggestu.obumbratio.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+public final class RecorderUtils {
+
+    private static final String AGENT_CLASS = "com.communi.suggestu.obumbratio.recorder.BenchmarkRecorder";
+
+    //The recorder runs inside the game, so its classes are copied out of the plugin instead of loading them here
+    private static final List<String> AGENT_CLASSES = List.of(
+            AGENT_CLASS,
+            AGENT_CLASS + "$State",
+            "com.communi.suggestu.obumbratio.recorder.WindowMarker",
+            "com.communi.suggestu.obumbratio.recorder.SwapBuffersTransformer",
+            "com.communi.suggestu.obumbratio.recorder.SwapBuffersTransformer$GlfwVisitor",
+            "com.communi.suggestu.obumbratio.recorder.SwapBuffersTransformer$SwapBuffersVisitor"
+    );
+
+    private RecorderUtils() {
+        throw new IllegalStateException("Tried to instantiate: 'RecorderUtils', but this is a utility class.");
+    }
+
+    /**
+     * Writes the Java agent which records the samples of a benchmark, and marks the first frame for the build timeline,
+     * inside the game.
+     *
+     * @param agentJar The file to write the agent jar to.
+     */
+    public static void writeAgent(final Path agentJar) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(new Attributes.Name("Premain-Class"), AGENT_CLASS);
+
+        Files.createDirectories(agentJar.getParent());
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(agentJar), manifest)) {
+            for (final String className : AGENT_CLASSES) {
+                final String entry = className.replace('.', '/') + ".class";
+                try (InputStream stream = RecorderUtils.class.getClassLoader().getResourceAsStream(entry)) {
+                    if (stream == null) {
+                        throw new IOException("The benchmark recorder class %s is missing from the plugin".formatted(className));
+                    }
+
+                    jar.putNextEntry(new JarEntry(entry));
+                    stream.transferTo(jar);
+                    jar.closeEntry();
+                }
+            }
+        }
+    }
+}
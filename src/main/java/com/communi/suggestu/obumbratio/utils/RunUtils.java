@@ -1,5 +1,6 @@
 package com.communi.suggestu.obumbratio.utils;
 
+import com.communi.suggestu.obumbratio.model.ClientLaunch;
 import com.communi.suggestu.obumbratio.model.Implementation;
 import com.communi.suggestu.obumbratio.model.Platform;
 import com.communi.suggestu.obumbratio.model.RunConfiguration;
@@ -10,10 +11,25 @@ import net.neoforged.gradle.dsl.common.runs.run.Run;
 import net.neoforged.gradle.dsl.common.runs.run.RunManager;
 import org.apache.commons.lang3.StringUtils;
 import org.gradle.api.Project;
+import org.gradle.api.tasks.JavaExec;
 import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.TaskProvider;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 
 public final class RunUtils {
 
+    private static final String FABRIC_LAUNCH_INJECTOR = "net.fabricmc.devlaunchinjector.Main";
+    private static final String FABRIC_CLIENT_MAIN_CLASS = "net.fabricmc.loader.impl.launch.knot.KnotClient";
+
     private RunUtils() {
         throw new IllegalStateException("Tried to instantiate: 'RunUtils', but this is a utility class.");
     }
@@ -25,6 +41,98 @@ public final class RunUtils {
             return getOrCreateNeoGradleRunFor(project, implementation, implementationSourceSet);
     }
 
+    public static RunConfiguration getOrCreateProfileRunFor(final Project project, final Platform platform, final Implementation implementation, final SourceSet implementationSourceSet, final RunConfiguration shaderRun, final List<String> jvmArguments) {
+        if (platform.isFabric())
+            return getOrCreateLoomProfileRunFor(project, implementation, shaderRun, jvmArguments);
+        else
+            return getOrCreateNeoGradleProfileRunFor(project, implementation, implementationSourceSet, shaderRun, jvmArguments);
+    }
+
+    public static RunConfiguration getBaseRunFor(final Project project, final Platform platform) {
+        if (platform.isFabric())
+            return new RunConfiguration(project.getExtensions().getByType(LoomGradleExtensionAPI.class).getRuns().getByName("client"));
+        else
+            return new RunConfiguration(project.getExtensions().getByType(RunManager.class).getByName("client"));
+    }
+
+    public static void addJvmArguments(final Project project, final Platform platform, final RunConfiguration run, final List<String> arguments) {
+        if (platform.isFabric())
+            arguments.forEach(project.getExtensions().getByType(LoomGradleExtensionAPI.class).getRuns().getByName(run.name())::vmArg);
+        else
+            project.getExtensions().getByType(RunManager.class).getByName(run.name()).getJvmArguments().addAll(arguments);
+    }
+
+    /**
+     * Keeps only the first run of every working directory, runs can share one, on Fabric all of them use Loom's run
+     * directory.
+     *
+     * @param runs The runs to filter.
+     * @return The runs with distinct working directories, in their original order.
+     */
+    public static List<RunConfiguration> distinctByWorkDirectory(final Collection<RunConfiguration> runs) {
+        final Map<File, RunConfiguration> runsByDirectory = new LinkedHashMap<>();
+        runs.forEach(run -> runsByDirectory.putIfAbsent(run.workDirectory().get().getAsFile().getAbsoluteFile(), run));
+        return new ArrayList<>(runsByDirectory.values());
+    }
+
+    public static String getRunTaskName(final RunConfiguration run) {
+        return "run%s".formatted(StringUtils.capitalize(run.name()));
+    }
+
+    public static void configureLaunchFrom(final Project project, final Platform platform, final RunConfiguration run, final ClientLaunch launch) {
+        final TaskProvider<JavaExec> runTask = project.getTasks().named(getRunTaskName(run), JavaExec.class);
+
+        launch.getName().set(run.name());
+        launch.getJavaExecutable().set(runTask.flatMap(JavaExec::getJavaLauncher).map(launcher -> launcher.getExecutablePath().getAsFile().getAbsolutePath()));
+        launch.getWorkingDirectory().set(run.workDirectory());
+
+        if (platform.isFabric()) {
+            configureFabricLaunchFrom(project, run, launch);
+            return;
+        }
+
+        //NeoGradle configures its run tasks completely while the build is configured
+        launch.getMainClass().set(runTask.flatMap(JavaExec::getMainClass));
+        launch.getClasspath().from(runTask.map(JavaExec::getClasspath));
+        launch.getJvmArguments().set(runTask.map(JavaExec::getAllJvmArgs));
+        launch.getArguments().set(runTask.map(task -> {
+            final List<String> arguments = new ArrayList<>(Objects.requireNonNullElse(task.getArgs(), List.of()));
+            task.getArgumentProviders().forEach(provider -> provider.asArguments().forEach(arguments::add));
+            return arguments;
+        }));
+        launch.getEnvironment().set(runTask.map(task -> {
+            final Map<String, String> environment = new HashMap<>();
+            task.getEnvironment().forEach((key, value) -> environment.put(key, String.valueOf(value)));
+            return environment;
+        }));
+    }
+
+    /**
+     * Loom only configures the classpath, working directory and environment of its run tasks when they execute, so the
+     * launch is created from the run settings instead, the same way Loom creates its run tasks and IDE runs from them:
+     * through the dev launch injector, which reads the remaining arguments from the launch config Loom generates.
+     */
+    private static void configureFabricLaunchFrom(final Project project, final RunConfiguration run, final ClientLaunch launch) {
+        final RunConfigSettings settings = project.getExtensions().getByType(LoomGradleExtensionAPI.class).getRuns().getByName(run.name());
+        final File launchConfig = project.getLayout().getProjectDirectory().file(".gradle/loom-cache/launch.cfg").getAsFile();
+
+        launch.getMainClass().set(FABRIC_LAUNCH_INJECTOR);
+        launch.getClasspath().from(project.provider(() -> settings.getSource(project).getRuntimeClasspath()));
+        launch.getJvmArguments().set(project.provider(() -> {
+            final List<String> arguments = new ArrayList<>(settings.getVmArgs());
+            arguments.add("-Dfabric.dli.config=%s".formatted(launchConfig.getAbsolutePath()));
+            arguments.add("-Dfabric.dli.env=%s".formatted(settings.getEnvironment().toLowerCase(Locale.ROOT)));
+            arguments.add("-Dfabric.dli.main=%s".formatted(settings.getMainClass().getOrElse(FABRIC_CLIENT_MAIN_CLASS)));
+            return arguments;
+        }));
+        launch.getArguments().set(project.provider(settings::getProgramArgs));
+        launch.getEnvironment().set(project.provider(() -> {
+            final Map<String, String> environment = new HashMap<>();
+            settings.getEnvironmentVariables().forEach((key, value) -> environment.put(key, String.valueOf(value)));
+            return environment;
+        }));
+    }
+
     private static RunConfiguration getOrCreateLoomRunFor(final Project project, final Implementation implementation, final SourceSet implementationSourceSet) {
         final LoomGradleExtensionAPI loomApi = project.getExtensions().getByType(LoomGradleExtensionAPI.class);
         final String name = "clientWith%sShaders".formatted(StringUtils.capitalize(implementation.name().toLowerCase()));
@@ -43,6 +151,45 @@ public final class RunUtils {
         }));
     }
 
+    private static RunConfiguration getOrCreateLoomProfileRunFor(final Project project, final Implementation implementation, final RunConfiguration shaderRun, final List<String> jvmArguments) {
+        final LoomGradleExtensionAPI loomApi = project.getExtensions().getByType(LoomGradleExtensionAPI.class);
+        final String name = "profile%s".formatted(StringUtils.capitalize(shaderRun.name()));
+
+        if (loomApi.getRuns().findByName(name) != null)
+            return new RunConfiguration(loomApi.getRuns().getByName(name));
+
+        return new RunConfiguration(loomApi.getRuns().create(name, run -> {
+            run.inherit(loomApi.getRuns().getByName(shaderRun.name()));
+            run.ideConfigGenerated(true);
+            run.setConfigName("Profile Fabric Client with " + StringUtils.capitalize(implementation.name().toLowerCase()));
+            jvmArguments.forEach(run::vmArg);
+        }));
+    }
+
+    private static RunConfiguration getOrCreateNeoGradleProfileRunFor(final Project project, final Implementation implementation, final SourceSet implementationSourceSet, final RunConfiguration shaderRun, final List<String> jvmArguments) {
+        final RunManager runs = project.getExtensions().getByType(RunManager.class);
+        final String name = "profile%s".formatted(StringUtils.capitalize(shaderRun.name()));
+
+        if (runs.findByName(name) != null)
+            return new RunConfiguration(runs.getByName(name));
+
+        final Run clientRun = runs.getByName("client");
+        final Run parentRun = runs.getByName(shaderRun.name());
+
+        return new RunConfiguration(runs.create(name, run -> {
+            run.configure(parentRun);
+            run.getModSources().add(implementationSourceSet);
+            run.configureFromTypeWithName(false);
+            run.getIDERunName().set(clientRun.getIDERunName().map(
+                    ideName -> "Profile " + ideName + " with %s shaders".formatted(StringUtils.capitalize(implementation.name().toLowerCase()))
+            ));
+            run.getExtensions().getByType(IdeaRunExtension.class).getPrimarySourceSet().set(implementationSourceSet);
+            //The profile shares the run directory of the shader run it profiles, so it sees the same mods and settings
+            run.getWorkingDirectory().set(parentRun.getWorkingDirectory());
+            run.getJvmArguments().addAll(jvmArguments);
+        }));
+    }
+
     private static RunConfiguration getOrCreateNeoGradleRunFor(final Project project, final Implementation implementation, final SourceSet implementationSourceSet) {
         final RunManager runs = project.getExtensions().getByType(RunManager.class);
         final String name = "clientWith%sShaders".formatted(StringUtils.capitalize(implementation.name().toLowerCase()));
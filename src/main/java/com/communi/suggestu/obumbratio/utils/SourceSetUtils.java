@@ -1,5 +1,6 @@
 package com.communi.suggestu.obumbratio.utils;
 
+import com.communi.suggestu.obumbratio.extensions.ShadersExtension;
 import com.communi.suggestu.obumbratio.model.ConfigurationSetup;
 import com.communi.suggestu.obumbratio.model.Implementation;
 import com.communi.suggestu.obumbratio.model.Platform;
@@ -11,6 +12,8 @@ import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.dsl.DependencyHandler;
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.publish.ivy.tasks.PublishToIvyRepository;
+import org.gradle.api.publish.maven.tasks.AbstractPublishToMaven;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
 import org.gradle.api.tasks.TaskProvider;
@@ -59,6 +62,8 @@ public final class SourceSetUtils {
                 }
         );
 
+        configureDocumentationJars(project, sourceSet);
+
         mainJarTask.configure(task -> task.from(sourceSet.getOutput()));
         sourceSet.setCompileClasspath(
                 sourceSet.getCompileClasspath().plus(main.getCompileClasspath())
@@ -126,6 +131,25 @@ public final class SourceSetUtils {
         return sourceSet;
     }
 
+    private static void configureDocumentationJars(final Project project, final SourceSet sourceSet) {
+        final ShadersExtension extension = project.getExtensions().getByType(ShadersExtension.class);
+        final List<String> taskNames = List.of(sourceSet.getJavadocTaskName(), sourceSet.getJavadocJarTaskName(), sourceSet.getSourcesJarTaskName());
+
+        //The jars stay registered for publishing, but only do work when they are actually needed.
+        //Publishing is detected from the task graph, so abbreviated and aggregate publishing tasks are covered as well.
+        project.getGradle().getTaskGraph().whenReady(graph -> {
+            final boolean publishing = graph.getAllTasks().stream()
+                    .anyMatch(task -> task instanceof AbstractPublishToMaven || task instanceof PublishToIvyRepository);
+            if (publishing || extension.getDocumentationJars().get()) {
+                return;
+            }
+
+            graph.getAllTasks().stream()
+                    .filter(task -> task.getProject() == project && taskNames.contains(task.getName()))
+                    .forEach(task -> task.setEnabled(false));
+        });
+    }
+
     public static ConfigurationSetup getConfigurationFor(Project project, final Platform platform, final Implementation implementation) {
         if (platform.isFabric()) {
             final String name = StringUtils.capitalize(implementation.name().toLowerCase(Locale.ROOT));